@@ -0,0 +1,61 @@
+package simulation.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import processing.core.PApplet;
+import processing.core.PGraphics;
+import simulation.core.BallWorld;
+import simulation.effects.BallTraceEffect;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One tick of trace capture and expiry for the whole world, with the trail
+ * already at its steady-state length.
+ *
+ * The balls never move here, so with decimation on a single ball only ever
+ * refreshes its newest trace; decimationThreshold=0 measures the full trail.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BallTraceEffectBenchmark {
+
+    @Param({"1", "100", "10000"})
+    public int balls;
+
+    @Param({"1000", "10000"})
+    public int traceLifetime;
+
+    @Param({"0", "1"})
+    public float decimationThreshold;
+
+    private BallWorld world;
+    private BallTraceEffect traceEffect;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        world = BenchmarkScenes.createWorld(balls, 42);
+
+        // A bare PGraphics is enough for colorMode()/color() without opening a window
+        PApplet applet = new PApplet();
+        applet.g = new PGraphics();
+
+        // Capture every tick until the trail stops growing: full, or expiring as fast as it captures
+        traceEffect = new BallTraceEffect(60, traceLifetime, false, 60, applet);
+        traceEffect.setDecimationThreshold(decimationThreshold);
+        int previousCount = -1;
+        for (int t = 0; t < traceLifetime && traceEffect.getTraceCount() != previousCount; t++) {
+            previousCount = traceEffect.getTraceCount();
+            traceEffect.applyToWorld(world);
+        }
+    }
+
+    @Benchmark
+    public BallTraceEffect applyToWorld() {
+        traceEffect.applyToWorld(world);
+        return traceEffect;
+    }
+}
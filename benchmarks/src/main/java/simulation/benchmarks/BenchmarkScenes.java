@@ -0,0 +1,47 @@
+package simulation.benchmarks;
+
+import processing.core.PVector;
+import simulation.core.BallWorld;
+import simulation.core.CircularWall;
+
+import java.util.Random;
+
+/**
+ * Shared scene setup so every benchmark measures the same layout
+ */
+final class BenchmarkScenes {
+    static final PVector WALL_CENTER = new PVector(600, 400);
+    static final float WALL_RADIUS = 350;
+    static final float WALL_THICKNESS = 10;
+
+    private BenchmarkScenes() {
+    }
+
+    static CircularWall createWall() {
+        return new CircularWall(WALL_CENTER, WALL_RADIUS, WALL_THICKNESS, 1.0f);
+    }
+
+    /**
+     * Scatter balls uniformly inside the ring with small random velocities.
+     * Radii shrink with the ball count so large scenes aren't one solid overlap.
+     */
+    static BallWorld createWorld(int balls, long seed) {
+        Random random = new Random(seed);
+        BallWorld world = new BallWorld(balls);
+        float radius = Math.max(1f, Math.min(30f, 150f / (float) Math.sqrt(balls)));
+        float maxDistance = WALL_RADIUS - WALL_THICKNESS - radius;
+
+        for (int i = 0; i < balls; i++) {
+            double angle = random.nextDouble() * Math.PI * 2;
+            double distance = Math.sqrt(random.nextDouble()) * maxDistance;
+            int index = world.add(
+                    WALL_CENTER.x + (float) (Math.cos(angle) * distance),
+                    WALL_CENTER.y + (float) (Math.sin(angle) * distance),
+                    radius, 1.0f);
+            world.get(index).setStrokeThickness(0.1f);
+            world.get(index).setMaxSpeed(300f);
+            world.get(index).setVelocity(random.nextFloat() * 8 - 4, random.nextFloat() * 8 - 4);
+        }
+        return world;
+    }
+}
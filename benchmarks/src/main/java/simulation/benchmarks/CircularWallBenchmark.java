@@ -0,0 +1,90 @@
+package simulation.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import simulation.core.Ball;
+import simulation.core.BallWorld;
+import simulation.core.CircularWall;
+import simulation.core.ContinuousCollidable;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The swept collision path the engine uses for the ring: time of impact for
+ * every ball, then moving to the contact and resolving it
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CircularWallBenchmark {
+
+    @Param({"1", "100", "10000"})
+    public int balls;
+
+    private BallWorld world;
+    private CircularWall wall;
+    private float[] startX;
+    private float[] startY;
+    private float[] startVelocityX;
+    private float[] startVelocityY;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        world = BenchmarkScenes.createWorld(balls, 42);
+        wall = BenchmarkScenes.createWall();
+
+        // Put every other ball just short of the inner surface, heading outward,
+        // so it reaches the wall within the tick
+        for (int i = 0; i < balls; i += 2) {
+            Ball ball = world.get(i);
+            float dx = ball.getX() - BenchmarkScenes.WALL_CENTER.x;
+            float dy = ball.getY() - BenchmarkScenes.WALL_CENTER.y;
+            float distance = Math.max(0.001f, (float) Math.sqrt(dx * dx + dy * dy));
+            float target = BenchmarkScenes.WALL_RADIUS - BenchmarkScenes.WALL_THICKNESS / 2
+                    - ball.getEffectiveRadius() - 2;
+            ball.setPosition(BenchmarkScenes.WALL_CENTER.x + dx / distance * target,
+                    BenchmarkScenes.WALL_CENTER.y + dy / distance * target);
+            ball.setVelocity(dx / distance * 5, dy / distance * 5);
+        }
+        startX = world.getX().clone();
+        startY = world.getY().clone();
+        startVelocityX = world.getVelocityX().clone();
+        startVelocityY = world.getVelocityY().clone();
+    }
+
+    @Benchmark
+    public void timeOfImpact(Blackhole blackhole) {
+        for (int i = 0; i < balls; i++) {
+            blackhole.consume(wall.timeOfImpact(world.get(i), 1f));
+        }
+    }
+
+    /**
+     * Includes putting the balls back where they started, a few array copies,
+     * so every call resolves the same contacts
+     */
+    @Benchmark
+    public BallWorld sweepAndResolve() {
+        System.arraycopy(startX, 0, world.getX(), 0, balls);
+        System.arraycopy(startY, 0, world.getY(), 0, balls);
+        System.arraycopy(startVelocityX, 0, world.getVelocityX(), 0, balls);
+        System.arraycopy(startVelocityY, 0, world.getVelocityY(), 0, balls);
+        world.getBounceEvents().beginTick();
+
+        float[] x = world.getX();
+        float[] y = world.getY();
+        for (int i = 0; i < balls; i++) {
+            Ball ball = world.get(i);
+            float t = wall.timeOfImpact(ball, 1f);
+            if (t == ContinuousCollidable.NO_HIT) continue;
+
+            x[i] += world.getVelocityX()[i] * t;
+            y[i] += world.getVelocityY()[i] * t;
+            wall.resolveContact(ball);
+        }
+        return world;
+    }
+}
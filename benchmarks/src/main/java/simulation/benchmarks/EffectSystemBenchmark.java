@@ -0,0 +1,92 @@
+package simulation.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import simulation.core.BallWorld;
+import simulation.core.BounceEventQueue;
+import simulation.core.BounceListener;
+import simulation.core.CircularWall;
+import simulation.effects.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The physics-side effect chain for one tick, with one ball in ten bouncing
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EffectSystemBenchmark {
+
+    @Param({"1", "100", "10000"})
+    public int balls;
+
+    private BallWorld world;
+    private EffectSystem effectSystem;
+    private CircularWall wall;
+    private float[] startRadius;
+    private float[] startVelocityX;
+    private float[] startVelocityY;
+    private BounceListener[] listeners;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        world = BenchmarkScenes.createWorld(balls, 42);
+        wall = BenchmarkScenes.createWall();
+        startRadius = world.getRadius().clone();
+        startVelocityX = world.getVelocityX().clone();
+        startVelocityY = world.getVelocityY().clone();
+
+        MaxSizeChecker checker = new MaxSizeChecker(BenchmarkScenes.WALL_RADIUS, BenchmarkScenes.WALL_THICKNESS);
+        listeners = new BounceListener[] {
+                new BounceGrowthEffect(1.1f, checker),
+                new BounceSpeedBoostEffect(1.012f),
+                new MaxSizeStopEffect(BenchmarkScenes.WALL_CENTER, checker, 1.1f, false, true, 0.5f)
+        };
+        effectSystem = new EffectSystem();
+        for (BounceListener listener : listeners) {
+            effectSystem.registerEffect((BallEffect) listener);
+        }
+    }
+
+    /**
+     * Undo the last call's growth and speed boost, and publish this tick's bounces. Both
+     * benchmarks pay for it, so their difference is the dispatch alone.
+     */
+    private void markBounces() {
+        System.arraycopy(startRadius, 0, world.getRadius(), 0, balls);
+        System.arraycopy(startVelocityX, 0, world.getVelocityX(), 0, balls);
+        System.arraycopy(startVelocityY, 0, world.getVelocityY(), 0, balls);
+        world.resetBounceFlags();
+        world.getBounceEvents().beginTick();
+        for (int i = 0; i < balls; i += 10) {
+            world.get(i).markBounce(wall, null, 0, -1, 5);
+        }
+    }
+
+    @Benchmark
+    public BallWorld applyEffects() {
+        markBounces();
+        effectSystem.applyPrePhysics(world);
+        effectSystem.dispatchBounces(world);
+        effectSystem.applyPostPhysics(world);
+        return world;
+    }
+
+    /**
+     * Baseline for the batch path: one virtual onBounce call per effect per event
+     */
+    @Benchmark
+    public BallWorld dispatchPerEvent() {
+        markBounces();
+        BounceEventQueue queue = world.getBounceEvents();
+        for (BounceListener listener : listeners) {
+            for (int e = 0; e < queue.size(); e++) {
+                listener.onBounce(queue.get(e));
+            }
+        }
+        return world;
+    }
+}
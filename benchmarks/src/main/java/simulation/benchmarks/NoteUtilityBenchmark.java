@@ -0,0 +1,40 @@
+package simulation.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import simulation.audio.NoteUtility;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pitch to frequency conversion for one note per bouncing ball
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NoteUtilityBenchmark {
+
+    @Param({"1", "100", "10000"})
+    public int balls;
+
+    private int[] pitches;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        pitches = new int[balls];
+        for (int i = 0; i < balls; i++) {
+            pitches[i] = i % 88;
+        }
+    }
+
+    @Benchmark
+    public float pitchToFrequency() {
+        float sum = 0;
+        for (int i = 0; i < balls; i++) {
+            sum += NoteUtility.pitchToFrequency(pitches[i]);
+        }
+        return sum;
+    }
+}
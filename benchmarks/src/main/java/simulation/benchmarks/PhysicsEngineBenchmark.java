@@ -0,0 +1,51 @@
+package simulation.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import simulation.core.BallWorld;
+import simulation.core.Collidable;
+import simulation.core.PhysicsEngine;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One physics tick for a whole world, including wall and ball-ball collisions
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PhysicsEngineBenchmark {
+
+    @Param({"1", "100", "10000"})
+    public int balls;
+
+    private BallWorld world;
+    private List<Collidable> collidables;
+    private PhysicsEngine engine;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        collidables = new ArrayList<>();
+        collidables.add(BenchmarkScenes.createWall());
+        engine = new PhysicsEngine(0.7f);
+    }
+
+    /**
+     * Start each iteration from the same scene, so every iteration measures
+     * the same stretch of simulation rather than wherever the last one ended
+     */
+    @Setup(Level.Iteration)
+    public void resetWorld() {
+        world = BenchmarkScenes.createWorld(balls, 42);
+    }
+
+    @Benchmark
+    public BallWorld update() {
+        engine.update(world, collidables);
+        return world;
+    }
+}
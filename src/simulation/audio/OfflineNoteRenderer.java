@@ -0,0 +1,190 @@
+package simulation.audio;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Note player that synthesizes into a WAV file instead of the sound card.
+ *
+ * Notes are stamped with the sample position set by the caller through
+ * {@link #setPosition(long)}, so timing follows simulation time rather than
+ * wall-clock time and the audio lines up with offline-rendered frames to the
+ * sample. Like {@link ProcessingNotePlayer} it is monophonic: a new note cuts
+ * off the one still sounding. Synthesis happens in one pass when the file is
+ * written and runs far faster than real time.
+ */
+public class OfflineNoteRenderer implements NotePlayer {
+    public static final int SAMPLE_RATE = 44100;
+    private static final int RAMP_SAMPLES = 64; // Fade at note edges to avoid clicks
+    private static final int HEADER_BYTES = 44;
+
+    private final int sampleRate;
+    private int instrument = ProcessingNotePlayer.SINE_WAVE;
+    private long position = 0;
+
+    // Notes in the order they were played
+    private int count = 0;
+    private long[] start = new long[64];
+    private int[] length = new int[64];
+    private float[] frequency = new float[64];
+    private float[] amplitude = new float[64];
+    private int[] waveform = new int[64];
+
+    public OfflineNoteRenderer() {
+        this(SAMPLE_RATE);
+    }
+
+    public OfflineNoteRenderer(int sampleRate) {
+        this.sampleRate = sampleRate;
+    }
+
+    /**
+     * Set the sample position that the next notes start at
+     */
+    public void setPosition(long samplePosition) {
+        this.position = samplePosition;
+    }
+
+    @Override
+    public void playNote(int pitch, float velocity, int duration) {
+        if (count == start.length) {
+            int capacity = count * 2;
+            start = Arrays.copyOf(start, capacity);
+            length = Arrays.copyOf(length, capacity);
+            frequency = Arrays.copyOf(frequency, capacity);
+            amplitude = Arrays.copyOf(amplitude, capacity);
+            waveform = Arrays.copyOf(waveform, capacity);
+        }
+
+        start[count] = position;
+        length[count] = (int) ((long) duration * sampleRate / 1000);
+        frequency[count] = NoteUtility.pitchToFrequency(pitch);
+        amplitude[count] = velocity;
+        waveform[count] = instrument;
+        count++;
+    }
+
+    @Override
+    public void setInstrument(int instrument) {
+        if (instrument >= 0 && instrument <= 3) {
+            this.instrument = instrument;
+        }
+    }
+
+    @Override
+    public void initialize() {
+    }
+
+    @Override
+    public void dispose() {
+        count = 0;
+    }
+
+    /**
+     * Synthesize every note and write a 16-bit mono WAV file
+     * @param totalSamples Length of the file; notes past the end are cut off
+     */
+    public void writeWav(File file, long totalSamples) throws IOException {
+        if (totalSamples > (Integer.MAX_VALUE - HEADER_BYTES) / 2) {
+            throw new IOException("Audio too long for a WAV file: " + totalSamples + " samples");
+        }
+        int dataBytes = (int) totalSamples * 2;
+
+        ByteBuffer wav = ByteBuffer.allocate(HEADER_BYTES + dataBytes).order(ByteOrder.LITTLE_ENDIAN);
+        writeHeader(wav, dataBytes);
+        for (int n = 0; n < count; n++) {
+            // Monophonic: the next note cuts this one off
+            long end = start[n] + length[n];
+            if (n + 1 < count) end = Math.min(end, start[n + 1]);
+            end = Math.min(end, totalSamples);
+            synthesize(wav, n, end);
+        }
+
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            wav.rewind();
+            while (wav.hasRemaining()) {
+                channel.write(wav);
+            }
+        }
+    }
+
+    private void writeHeader(ByteBuffer wav, int dataBytes) {
+        wav.put(new byte[] {'R', 'I', 'F', 'F'}).putInt(36 + dataBytes);
+        wav.put(new byte[] {'W', 'A', 'V', 'E'});
+        wav.put(new byte[] {'f', 'm', 't', ' '}).putInt(16);
+        wav.putShort((short) 1);            // PCM
+        wav.putShort((short) 1);            // Mono
+        wav.putInt(sampleRate);
+        wav.putInt(sampleRate * 2);         // Bytes per second
+        wav.putShort((short) 2);            // Bytes per sample frame
+        wav.putShort((short) 16);           // Bits per sample
+        wav.put(new byte[] {'d', 'a', 't', 'a'}).putInt(dataBytes);
+    }
+
+    /**
+     * Write one note's samples into the data chunk. Notes don't overlap, so
+     * each sample is written rather than mixed.
+     */
+    private void synthesize(ByteBuffer wav, int n, long end) {
+        long first = start[n];
+        int samples = (int) (end - first);
+        if (samples <= 0) return;
+
+        double step = (double) frequency[n] / sampleRate;
+        int ramp = Math.min(RAMP_SAMPLES, samples / 2);
+        float amp = Math.min(1, Math.max(0, amplitude[n]));
+        int shape = waveform[n];
+
+        for (int s = 0; s < samples; s++) {
+            double phase = s * step;
+            phase -= Math.floor(phase);
+
+            double value = oscillator(shape, phase) * amp;
+            if (s < ramp) {
+                value *= (double) s / ramp;
+            } else if (s >= samples - ramp) {
+                value *= (double) (samples - s) / ramp;
+            }
+
+            wav.putShort(HEADER_BYTES + (int) (first + s) * 2, (short) Math.round(value * Short.MAX_VALUE));
+        }
+    }
+
+    /**
+     * One period of each instrument's waveform, in [-1, 1]
+     */
+    private static double oscillator(int shape, double phase) {
+        switch (shape) {
+            case ProcessingNotePlayer.TRIANGLE_WAVE:
+                return 1 - 4 * Math.abs(phase - 0.5);
+            case ProcessingNotePlayer.SAW_WAVE:
+                return 2 * phase - 1;
+            case ProcessingNotePlayer.SQUARE_WAVE:
+                return phase < 0.5 ? 1 : -1;
+            default:
+                return Math.sin(2 * Math.PI * phase);
+        }
+    }
+
+    /**
+     * Sample position of a point in time given as a count of fixed steps,
+     * e.g. physics ticks or video frames
+     */
+    public long samplePosition(long steps, int stepsPerSecond) {
+        return steps * sampleRate / stepsPerSecond;
+    }
+
+    public int getSampleRate() {
+        return sampleRate;
+    }
+
+    public int getNoteCount() {
+        return count;
+    }
+}
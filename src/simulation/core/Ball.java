@@ -2,94 +2,132 @@ package simulation.core;
 
 import processing.core.PApplet;
 import processing.core.PVector;
-
+import simulation.rendering.RainbowPalette;
+
+/**
+ * View over a single ball stored in a {@link BallWorld}.
+ *
+ * All state lives in the world's arrays. The PVector getters return a cached
+ * snapshot that is refreshed on every call; write changes back through the
+ * setters.
+ */
 public class Ball {
-    private PVector position;
-    private PVector velocity;
-    private float radius;
-    private float strokeThickness;
-    private float mass;
-    private int color;
-    private float maxSpeed = Float.MAX_VALUE;
-    private PVector previousVelocity = new PVector();
-
-    // State tracking managed by BallStateManager
-    private final BallStateManager stateManager = new BallStateManager();
-
-    public Ball(PVector position, float radius, float mass) {
-        this.position = position.copy();
-        this.velocity = new PVector(0, 0);
-        this.radius = radius;
-        this.mass = mass;
+    private final BallWorld world;
+    private final int index;
+
+    // Reused snapshots so the getters don't allocate
+    private final PVector position = new PVector();
+    private final PVector velocity = new PVector();
+    private final PVector previousVelocity = new PVector();
+
+    Ball(BallWorld world, int index) {
+        this.world = world;
+        this.index = index;
     }
 
     public void applyForce(PVector force) {
-        if (stateManager.isLocked()) return;
+        if (isLocked()) return;
 
-        PVector acceleration = force.copy().div(mass);
-        velocity.add(acceleration);
+        float m = world.getMass()[index];
+        world.getVelocityX()[index] += force.x / m;
+        world.getVelocityY()[index] += force.y / m;
     }
 
     public void update() {
-        if (stateManager.isLocked()) return;
-        position.add(velocity);
+        if (isLocked()) return;
+        world.getX()[index] += world.getVelocityX()[index];
+        world.getY()[index] += world.getVelocityY()[index];
     }
 
     public void checkCollision(Collidable collidable) {
-        if (stateManager.isLocked()) return;
+        if (isLocked()) return;
         if (collidable.checkCollision(this)) {
             collidable.resolveCollision(this);
-            stateManager.markBounce();
+            markBounce();
         }
     }
 
+    public BallWorld getWorld() { return world; }
+    public int getIndex() { return index; }
+
     // Core physics getters/setters
-    public PVector getPosition() { return position; }
-    public void setPosition(PVector position) { this.position = position; }
-    public PVector getVelocity() { return velocity; }
+    public PVector getPosition() {
+        return position.set(world.getX()[index], world.getY()[index]);
+    }
+
+    public void setPosition(PVector position) {
+        world.getX()[index] = position.x;
+        world.getY()[index] = position.y;
+    }
+
+    public PVector getVelocity() {
+        return velocity.set(world.getVelocityX()[index], world.getVelocityY()[index]);
+    }
 
     public void setVelocity(PVector velocity) {
-        if (stateManager.isLocked()) return;
+        world.setVelocity(index, velocity.x, velocity.y);
+    }
 
-        if (velocity.mag() > maxSpeed) {
-            velocity = velocity.copy().normalize().mult(maxSpeed);
-        }
-        this.velocity = velocity;
+    // Scalar accessors for collision code that shouldn't touch PVectors
+    public float getX() { return world.getX()[index]; }
+    public float getY() { return world.getY()[index]; }
+    public float getVelocityX() { return world.getVelocityX()[index]; }
+    public float getVelocityY() { return world.getVelocityY()[index]; }
+
+    public void setPosition(float x, float y) {
+        world.getX()[index] = x;
+        world.getY()[index] = y;
+    }
+
+    public void setVelocity(float vx, float vy) {
+        world.setVelocity(index, vx, vy);
     }
 
-    public float getRadius() { return radius; }
-    public void setRadius(float radius) { this.radius = radius; }
-    public float getMass() { return mass; }
-    public void setMass(float mass) { this.mass = mass; }
-    public void setMaxSpeed(float maxSpeed) { this.maxSpeed = maxSpeed; }
-    public float getStrokeThickness() { return strokeThickness; }
-    public void setStrokeThickness(float thickness) { this.strokeThickness = thickness; }
-    public int getColor() { return color; }
-    public void setColor(int color) { this.color = color; }
+    public float getRadius() { return world.getRadius()[index]; }
+    public void setRadius(float radius) { world.getRadius()[index] = radius; }
+    public float getMass() { return world.getMass()[index]; }
+    public void setMass(float mass) { world.getMass()[index] = mass; }
+    public void setMaxSpeed(float maxSpeed) { world.getMaxSpeed()[index] = maxSpeed; }
+    public float getStrokeThickness() { return world.getStrokeThickness()[index]; }
+    public void setStrokeThickness(float thickness) { world.getStrokeThickness()[index] = thickness; }
+    public int getColor() { return world.getColor()[index]; }
+    public void setColor(int color) { world.getColor()[index] = color; }
 
     public float getEffectiveRadius() {
-        return radius + strokeThickness / 2.0f;
+        return world.getRadius()[index] + world.getStrokeThickness()[index] / 2.0f;
     }
 
     public int getCurrentVisualStrokeColor(PApplet app) {
-        float hue = (app.frameCount * 2) % 360;
-        app.colorMode(PApplet.HSB, 360, 100, 100, 100);
-        int c = app.color(hue, 100, 100);
-        app.colorMode(PApplet.RGB, 255);
-        return c;
+        return RainbowPalette.colorAt(app.frameCount * 2);
     }
 
-    // State delegation methods
-    public boolean isLocked() { return stateManager.isLocked(); }
-    public void lockMotion() {
-        this.velocity.set(0, 0);
-        stateManager.setLocked(true);
+    // State flags
+    public boolean isLocked() { return world.getLocked()[index]; }
+    public void lockMotion() { world.lock(index); }
+    public boolean hasJustBounced() { return world.getJustBounced()[index]; }
+    public void resetBounceFlag() { world.getJustBounced()[index] = false; }
+    public void markBounce() { world.getJustBounced()[index] = true; }
+
+    /**
+     * Mark a bounce and publish it to the world's bounce event queue
+     * @param wall The wall that was hit, or null for a ball-ball contact
+     * @param otherBall The other ball in a ball-ball contact, or null
+     * @param normalX Contact normal pointing from the surface towards the ball
+     * @param normalY Contact normal pointing from the surface towards the ball
+     * @param impactSpeed Speed along the normal before the bounce
+     */
+    public void markBounce(Collidable wall, Ball otherBall, float normalX, float normalY, float impactSpeed) {
+        world.getJustBounced()[index] = true;
+        world.getBounceEvents().publish(this, wall, otherBall, normalX, normalY, impactSpeed);
     }
-    public boolean hasJustBounced() { return stateManager.hasJustBounced(); }
-    public void resetBounceFlag() { stateManager.resetBounceFlag(); }
-    public void markBounce() { stateManager.markBounce(); }
 
     // Physics utility methods
-    public void preserveVelocity() { previousVelocity.set(velocity); }
-    public PVector getPreviousVelocity() { return previousVelocity; }
+    public void preserveVelocity() {
+        world.getPreviousVelocityX()[index] = world.getVelocityX()[index];
+        world.getPreviousVelocityY()[index] = world.getVelocityY()[index];
+    }
+
+    public PVector getPreviousVelocity() {
+        return previousVelocity.set(world.getPreviousVelocityX()[index], world.getPreviousVelocityY()[index]);
+    }
 }
@@ -0,0 +1,225 @@
+package simulation.core;
+
+import java.util.Arrays;
+
+/**
+ * Structure-of-arrays storage for every ball in a scene.
+ *
+ * Positions, velocities, sizes and state flags live in parallel primitive
+ * arrays so that {@link PhysicsEngine} can step all balls in one tight loop.
+ * {@link Ball} instances handed out by {@link #get(int)} are lightweight views
+ * over a single index and are created once, when the ball is added.
+ *
+ * The arrays returned by the bulk accessors are replaced when the world grows,
+ * so callers must re-fetch them after {@link #add}.
+ */
+public class BallWorld {
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private int count = 0;
+
+    private float[] x;
+    private float[] y;
+    private float[] previousX;
+    private float[] previousY;
+    private float[] velocityX;
+    private float[] velocityY;
+    private float[] previousVelocityX;
+    private float[] previousVelocityY;
+    private float[] radius;
+    private float[] strokeThickness;
+    private float[] mass;
+    private float[] maxSpeed;
+    private int[] color;
+    private boolean[] locked;
+    private boolean[] justBounced;
+
+    private Ball[] views;
+
+    private final BounceEventQueue bounceEvents = new BounceEventQueue();
+
+    public BallWorld() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public BallWorld(int initialCapacity) {
+        allocate(Math.max(1, initialCapacity));
+    }
+
+    /**
+     * Add a ball at rest and return its index
+     */
+    public int add(float px, float py, float r, float m) {
+        ensureCapacity(count + 1);
+        int i = count++;
+        reset(i, px, py, r, m);
+        views[i] = new Ball(this, i);
+        return i;
+    }
+
+    /**
+     * Put an existing ball back at rest as if it had just been added:
+     * unlocked, no bounce, and no motion history to interpolate from
+     */
+    public void reset(int i, float px, float py, float r, float m) {
+        x[i] = px;
+        y[i] = py;
+        previousX[i] = px;
+        previousY[i] = py;
+        velocityX[i] = 0;
+        velocityY[i] = 0;
+        previousVelocityX[i] = 0;
+        previousVelocityY[i] = 0;
+        radius[i] = r;
+        strokeThickness[i] = 0;
+        mass[i] = m;
+        maxSpeed[i] = Float.MAX_VALUE;
+        color[i] = 0;
+        locked[i] = false;
+        justBounced[i] = false;
+    }
+
+    /**
+     * Get the ball view for an index. The view is cached, so this never allocates.
+     */
+    public Ball get(int index) {
+        return views[index];
+    }
+
+    public int size() {
+        return count;
+    }
+
+    /**
+     * Bounces published during the most recent tick
+     */
+    public BounceEventQueue getBounceEvents() {
+        return bounceEvents;
+    }
+
+    public void clear() {
+        truncate(0);
+    }
+
+    /**
+     * Remove every ball from the given index on
+     */
+    public void truncate(int newSize) {
+        if (newSize >= count) return;
+        Arrays.fill(views, newSize, count, null);
+        count = newSize;
+    }
+
+    /**
+     * Move a ball with no motion history, so interpolation doesn't draw it
+     * sliding over from where it was
+     */
+    public void teleport(int i, float px, float py) {
+        x[i] = px;
+        y[i] = py;
+        previousX[i] = px;
+        previousY[i] = py;
+    }
+
+    /**
+     * Interpolated x position between the previous and current tick
+     */
+    public float getInterpolatedX(int i, float alpha) {
+        return previousX[i] + (x[i] - previousX[i]) * alpha;
+    }
+
+    /**
+     * Interpolated y position between the previous and current tick
+     */
+    public float getInterpolatedY(int i, float alpha) {
+        return previousY[i] + (y[i] - previousY[i]) * alpha;
+    }
+
+    /**
+     * Reset per-tick bounce flags for every ball
+     */
+    public void resetBounceFlags() {
+        Arrays.fill(justBounced, 0, count, false);
+    }
+
+    private void ensureCapacity(int required) {
+        if (required <= x.length) return;
+
+        int capacity = Math.max(required, x.length * 2);
+        x = Arrays.copyOf(x, capacity);
+        y = Arrays.copyOf(y, capacity);
+        previousX = Arrays.copyOf(previousX, capacity);
+        previousY = Arrays.copyOf(previousY, capacity);
+        velocityX = Arrays.copyOf(velocityX, capacity);
+        velocityY = Arrays.copyOf(velocityY, capacity);
+        previousVelocityX = Arrays.copyOf(previousVelocityX, capacity);
+        previousVelocityY = Arrays.copyOf(previousVelocityY, capacity);
+        radius = Arrays.copyOf(radius, capacity);
+        strokeThickness = Arrays.copyOf(strokeThickness, capacity);
+        mass = Arrays.copyOf(mass, capacity);
+        maxSpeed = Arrays.copyOf(maxSpeed, capacity);
+        color = Arrays.copyOf(color, capacity);
+        locked = Arrays.copyOf(locked, capacity);
+        justBounced = Arrays.copyOf(justBounced, capacity);
+        views = Arrays.copyOf(views, capacity);
+    }
+
+    private void allocate(int capacity) {
+        x = new float[capacity];
+        y = new float[capacity];
+        previousX = new float[capacity];
+        previousY = new float[capacity];
+        velocityX = new float[capacity];
+        velocityY = new float[capacity];
+        previousVelocityX = new float[capacity];
+        previousVelocityY = new float[capacity];
+        radius = new float[capacity];
+        strokeThickness = new float[capacity];
+        mass = new float[capacity];
+        maxSpeed = new float[capacity];
+        color = new int[capacity];
+        locked = new boolean[capacity];
+        justBounced = new boolean[capacity];
+        views = new Ball[capacity];
+    }
+
+    /**
+     * Set a ball's velocity, clamped to its max speed. Locked balls are left alone.
+     */
+    public void setVelocity(int i, float vx, float vy) {
+        if (locked[i]) return;
+
+        float limit = maxSpeed[i];
+        float magSq = vx * vx + vy * vy;
+        if (magSq > limit * limit) {
+            float scale = limit / (float) Math.sqrt(magSq);
+            vx *= scale;
+            vy *= scale;
+        }
+        velocityX[i] = vx;
+        velocityY[i] = vy;
+    }
+
+    void lock(int i) {
+        velocityX[i] = 0;
+        velocityY[i] = 0;
+        locked[i] = true;
+    }
+
+    // Bulk accessors for hot loops
+    public float[] getX() { return x; }
+    public float[] getY() { return y; }
+    public float[] getPreviousX() { return previousX; }
+    public float[] getPreviousY() { return previousY; }
+    public float[] getVelocityX() { return velocityX; }
+    public float[] getVelocityY() { return velocityY; }
+    public float[] getPreviousVelocityX() { return previousVelocityX; }
+    public float[] getPreviousVelocityY() { return previousVelocityY; }
+    public float[] getRadius() { return radius; }
+    public float[] getStrokeThickness() { return strokeThickness; }
+    public float[] getMass() { return mass; }
+    public float[] getMaxSpeed() { return maxSpeed; }
+    public int[] getColor() { return color; }
+    public boolean[] getLocked() { return locked; }
+    public boolean[] getJustBounced() { return justBounced; }
+}
@@ -0,0 +1,53 @@
+package simulation.core;
+
+/**
+ * A single contact that made a ball bounce.
+ *
+ * Instances are owned and reused by {@link BounceEventQueue}; listeners must
+ * not hold on to an event after {@link BounceListener#onBounce} returns.
+ */
+public class BounceEvent {
+    private Ball ball;
+    private Collidable wall;
+    private Ball otherBall;
+    private float normalX;
+    private float normalY;
+    private float impactSpeed;
+    private int tick;
+
+    void set(Ball ball, Collidable wall, Ball otherBall,
+             float normalX, float normalY, float impactSpeed, int tick) {
+        this.ball = ball;
+        this.wall = wall;
+        this.otherBall = otherBall;
+        this.normalX = normalX;
+        this.normalY = normalY;
+        this.impactSpeed = impactSpeed;
+        this.tick = tick;
+    }
+
+    public Ball getBall() { return ball; }
+
+    /**
+     * The wall that was hit, or null for a ball-ball contact
+     */
+    public Collidable getWall() { return wall; }
+
+    /**
+     * The other ball in a ball-ball contact, or null for a wall contact
+     */
+    public Ball getOtherBall() { return otherBall; }
+
+    public boolean isWallBounce() { return wall != null; }
+
+    // Unit contact normal, pointing from the surface towards the ball
+    public float getNormalX() { return normalX; }
+    public float getNormalY() { return normalY; }
+
+    /**
+     * Speed along the contact normal just before the bounce
+     */
+    public float getImpactSpeed() { return impactSpeed; }
+
+    public int getTick() { return tick; }
+}
@@ -0,0 +1,137 @@
+package simulation.core;
+
+import java.util.Arrays;
+
+/**
+ * Preallocated queue of the bounces that happened during the current tick.
+ *
+ * Colliders publish into it while the physics step runs; the effect system
+ * drains it afterwards. Event objects are recycled between ticks, so
+ * publishing never allocates once the pool has grown to the busiest tick.
+ *
+ * A ball can make several contacts in one tick, e.g. one per sub-step. The
+ * queue also keeps each bounced ball's index once per tick, in order of its
+ * first contact, together with that contact's event. Effects that should
+ * react once per bounce, as they did when bounces were a per-ball flag,
+ * use these lists instead of the raw events.
+ */
+public class BounceEventQueue {
+    private BounceEvent[] events = new BounceEvent[16];
+    private int count = 0;
+    private int tick = 0;
+
+    // Each ball once per tick, with the event of its first contact
+    private int[] ballIndices = new int[16];
+    private int[] firstEvents = new int[16];
+    private int ballCount = 0;
+    private int[] wallBallIndices = new int[16];
+    private int wallBallCount = 0;
+
+    // Tick in which each ball index was last added to the lists above
+    private int[] listedTick = new int[0];
+    private int[] wallListedTick = new int[0];
+
+    public BounceEventQueue() {
+        fillPool(0);
+    }
+
+    /**
+     * Drop the previous tick's events and advance the tick counter
+     */
+    public void beginTick() {
+        count = 0;
+        ballCount = 0;
+        wallBallCount = 0;
+        tick++;
+    }
+
+    public void publish(Ball ball, Collidable wall, Ball otherBall,
+                        float normalX, float normalY, float impactSpeed) {
+        if (count == events.length) {
+            events = Arrays.copyOf(events, count * 2);
+            fillPool(count);
+        }
+        events[count].set(ball, wall, otherBall, normalX, normalY, impactSpeed, tick);
+
+        int index = ball.getIndex();
+        if (index >= listedTick.length) {
+            growListed(index + 1);
+        }
+        if (listedTick[index] != tick) {
+            listedTick[index] = tick;
+            if (ballCount == ballIndices.length) {
+                ballIndices = Arrays.copyOf(ballIndices, ballCount * 2);
+                firstEvents = Arrays.copyOf(firstEvents, ballCount * 2);
+            }
+            ballIndices[ballCount] = index;
+            firstEvents[ballCount++] = count;
+        }
+        if (wall != null && wallListedTick[index] != tick) {
+            wallListedTick[index] = tick;
+            if (wallBallCount == wallBallIndices.length) {
+                wallBallIndices = Arrays.copyOf(wallBallIndices, wallBallCount * 2);
+            }
+            wallBallIndices[wallBallCount++] = index;
+        }
+        count++;
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public BounceEvent get(int index) {
+        return events[index];
+    }
+
+    /**
+     * Index of every ball that bounced this tick, once each, valid up to
+     * {@link #getBouncedBallCount()}
+     */
+    public int[] getBallIndices() {
+        return ballIndices;
+    }
+
+    /**
+     * Event index of each bounced ball's first contact, parallel to {@link #getBallIndices()}
+     */
+    public int[] getFirstEventIndices() {
+        return firstEvents;
+    }
+
+    public int getBouncedBallCount() {
+        return ballCount;
+    }
+
+    /**
+     * Index of every ball that touched a wall this tick, once each, valid up
+     * to {@link #getWallBouncedBallCount()}
+     */
+    public int[] getWallBallIndices() {
+        return wallBallIndices;
+    }
+
+    public int getWallBouncedBallCount() {
+        return wallBallCount;
+    }
+
+    public int getTick() {
+        return tick;
+    }
+
+    private void growListed(int balls) {
+        int from = listedTick.length;
+        int capacity = Math.max(balls, from * 2);
+        listedTick = Arrays.copyOf(listedTick, capacity);
+        wallListedTick = Arrays.copyOf(wallListedTick, capacity);
+        // Tick 0 is before the first beginTick(), so new entries must not match it
+        Arrays.fill(listedTick, from, capacity, -1);
+        Arrays.fill(wallListedTick, from, capacity, -1);
+    }
+
+    private void fillPool(int from) {
+        for (int i = from; i < events.length; i++) {
+            events[i] = new BounceEvent();
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package simulation.core;
+
+/**
+ * Receives bounce events dispatched after each physics tick
+ */
+public interface BounceListener {
+    void onBounce(BounceEvent event);
+}
@@ -0,0 +1,12 @@
+package simulation.core;
+
+/**
+ * Finds candidate pairs of overlapping balls for the ball-ball narrowphase
+ */
+public interface BroadphaseStrategy {
+    /**
+     * Clear the pair buffer and fill it with every pair of balls whose
+     * effective circles overlap this tick
+     */
+    void findPairs(BallWorld world, CollisionPairs pairs);
+}
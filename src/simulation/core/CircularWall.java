@@ -1,9 +1,9 @@
 package simulation.core;
 
-import processing.core.PApplet;
+import processing.core.PGraphics;
 import processing.core.PVector;
 
-public class CircularWall extends Wall {
+public class CircularWall extends Wall implements ContinuousCollidable {
     private final PVector center;
     private final float radius;
     private final float elasticity;
@@ -18,7 +18,9 @@ public class CircularWall extends Wall {
     @Override
     public boolean checkCollision(Ball ball) {
         float ballEffectiveRadius = ball.getEffectiveRadius();
-        float distance = PVector.dist(ball.getPosition(), center);
+        float dx = ball.getX() - center.x;
+        float dy = ball.getY() - center.y;
+        float distance = (float) Math.sqrt(dx * dx + dy * dy);
 
         float innerLimit = radius - thickness / 2 - ballEffectiveRadius;
         float outerLimit = radius + thickness / 2 + ballEffectiveRadius;
@@ -29,13 +31,16 @@ public class CircularWall extends Wall {
 
     @Override
     public void resolveCollision(Ball ball) {
-        PVector toBall = PVector.sub(ball.getPosition(), center);
-        float distance = toBall.mag();
+        float nx = ball.getX() - center.x;
+        float ny = ball.getY() - center.y;
+        float distance = (float) Math.sqrt(nx * nx + ny * ny);
 
         if (distance < 0.001f) {
-            toBall = new PVector(0, -1); // fallback to avoid NaN
+            nx = 0; // fallback to avoid NaN
+            ny = -1;
         } else {
-            toBall.normalize();
+            nx /= distance;
+            ny /= distance;
         }
 
         float ballEffectiveRadius = ball.getEffectiveRadius();
@@ -46,27 +51,106 @@ public class CircularWall extends Wall {
         float distanceToInner = Math.abs(distance - (radius - thickness / 2f));
 
         // Determine which shell surface is closer and use it as target
-        float targetSurface = (distanceToOuter < distanceToInner) ? outerSurface : innerSurface;
+        boolean outer = distanceToOuter < distanceToInner;
+        float targetSurface = outer ? outerSurface : innerSurface;
 
         // New position on correct shell
-        PVector targetPosition = PVector.add(center, toBall.copy().mult(targetSurface));
-        ball.setPosition(targetPosition);
+        ball.setPosition(center.x + nx * targetSurface, center.y + ny * targetSurface);
 
         // Reflect velocity outward/inward from center
-        PVector velocity = ball.getVelocity();
-        float dot = velocity.dot(toBall);
-        PVector reflection = PVector.sub(velocity, toBall.mult(2 * dot)).mult(elasticity);
-        ball.setVelocity(reflection);
+        float vx = ball.getVelocityX();
+        float vy = ball.getVelocityY();
+        float dot = vx * nx + vy * ny;
+        ball.setVelocity((vx - 2 * dot * nx) * elasticity, (vy - 2 * dot * ny) * elasticity);
 
-        ball.markBounce();
+        float side = outer ? 1 : -1;
+        ball.markBounce(this, null, nx * side, ny * side, Math.abs(dot));
     }
 
     @Override
-    public void display(PApplet app) {
-        app.stroke(255);
-        app.strokeWeight(thickness);
-        app.noFill();
-        app.ellipse(center.x, center.y, radius * 2, radius * 2);
+    public float timeOfImpact(Ball ball, float maxTime) {
+        float dx = ball.getX() - center.x;
+        float dy = ball.getY() - center.y;
+        float vx = ball.getVelocityX();
+        float vy = ball.getVelocityY();
+
+        // Solve |d + v t| = limit, written as a t^2 + 2 b t + c = 0
+        float a = vx * vx + vy * vy;
+        float b = dx * vx + dy * vy;
+        float distanceSq = dx * dx + dy * dy;
+        float ballEffectiveRadius = ball.getEffectiveRadius();
+
+        if (distanceSq < radius * radius) {
+            // Inside the ring: hit the inner surface while moving outward
+            float limit = radius - thickness / 2f - ballEffectiveRadius;
+            if (limit <= 0) return b > 0 ? 0 : NO_HIT;
+
+            float c = distanceSq - limit * limit;
+            if (c >= 0 && b > 0) return 0; // already touching and moving outward
+            if (a == 0) return NO_HIT;
+
+            // The far root is where the ball next reaches the inner surface,
+            // including when it is touching now but heading back inward
+            float discriminant = b * b - a * c;
+            if (discriminant < 0) return NO_HIT;
+
+            float t = (-b + (float) Math.sqrt(discriminant)) / a;
+            return t >= 0 && t <= maxTime ? t : NO_HIT;
+        }
+
+        // Outside the ring: hit the outer surface while moving inward
+        float limit = radius + thickness / 2f + ballEffectiveRadius;
+        float c = distanceSq - limit * limit;
+        if (c <= 0) return b < 0 ? 0 : NO_HIT; // already touching
+        if (b >= 0 || a == 0) return NO_HIT;
+
+        float discriminant = b * b - a * c;
+        if (discriminant < 0) return NO_HIT;
+
+        float t = (-b - (float) Math.sqrt(discriminant)) / a;
+        return t <= maxTime ? t : NO_HIT;
+    }
+
+    @Override
+    public void resolveContact(Ball ball) {
+        float nx = ball.getX() - center.x;
+        float ny = ball.getY() - center.y;
+        float distance = (float) Math.sqrt(nx * nx + ny * ny);
+
+        if (distance < 0.001f) {
+            nx = 0; // fallback to avoid NaN
+            ny = -1;
+        } else {
+            nx /= distance;
+            ny /= distance;
+        }
+
+        float ballEffectiveRadius = ball.getEffectiveRadius();
+        boolean inside = distance < radius;
+        float targetSurface = inside
+                ? radius - thickness / 2f - ballEffectiveRadius
+                : radius + thickness / 2f + ballEffectiveRadius;
+        ball.setPosition(center.x + nx * targetSurface, center.y + ny * targetSurface);
+
+        // Reflect only the component heading into the wall
+        float vx = ball.getVelocityX();
+        float vy = ball.getVelocityY();
+        float dot = vx * nx + vy * ny;
+        if (inside ? dot > 0 : dot < 0) {
+            ball.setVelocity((vx - 2 * dot * nx) * elasticity, (vy - 2 * dot * ny) * elasticity);
+        }
+
+        // Normal faces the ball: towards the centre on the inner surface
+        float side = inside ? -1 : 1;
+        ball.markBounce(this, null, nx * side, ny * side, Math.abs(dot));
+    }
+
+    @Override
+    public void display(PGraphics graphics) {
+        graphics.stroke(255);
+        graphics.strokeWeight(thickness);
+        graphics.noFill();
+        graphics.ellipse(center.x, center.y, radius * 2, radius * 2);
     }
 
     public float getRadius() {
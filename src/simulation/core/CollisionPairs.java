@@ -0,0 +1,38 @@
+package simulation.core;
+
+import java.util.Arrays;
+
+/**
+ * Reusable list of candidate ball index pairs produced by a broadphase
+ */
+public class CollisionPairs {
+    private int[] first = new int[64];
+    private int[] second = new int[64];
+    private int count = 0;
+
+    public void add(int a, int b) {
+        if (count == first.length) {
+            first = Arrays.copyOf(first, count * 2);
+            second = Arrays.copyOf(second, count * 2);
+        }
+        first[count] = a;
+        second[count] = b;
+        count++;
+    }
+
+    public void clear() {
+        count = 0;
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public int getFirst(int pair) {
+        return first[pair];
+    }
+
+    public int getSecond(int pair) {
+        return second[pair];
+    }
+}
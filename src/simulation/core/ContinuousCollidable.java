@@ -0,0 +1,23 @@
+package simulation.core;
+
+/**
+ * A collidable that can report the exact time a moving ball first touches it.
+ *
+ * Time is measured as a fraction of the ball's velocity for the current tick,
+ * so a ball at position p touches the surface at p + v * t.
+ */
+public interface ContinuousCollidable extends Collidable {
+    float NO_HIT = -1f;
+
+    /**
+     * Earliest time in [0, maxTime] at which the ball touches this surface
+     * while moving into it, or {@link #NO_HIT}
+     */
+    float timeOfImpact(Ball ball, float maxTime);
+
+    /**
+     * Resolve a contact found by {@link #timeOfImpact}. The ball is already at
+     * the contact position; this reflects its velocity and marks the bounce.
+     */
+    void resolveContact(Ball ball);
+}
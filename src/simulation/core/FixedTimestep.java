@@ -0,0 +1,85 @@
+package simulation.core;
+
+/**
+ * Fixed-dt accumulator that decouples physics ticks from the render frame rate.
+ *
+ * Each rendered frame calls {@link #advance(long)} with the current time and
+ * runs the returned number of physics ticks. The leftover fraction of a tick
+ * is exposed as {@link #getAlpha()} so rendering can interpolate between the
+ * previous and current tick. A cap on catch-up ticks keeps a slow frame from
+ * spiralling; time beyond the cap is dropped rather than simulated.
+ */
+public class FixedTimestep {
+    private final long tickNanos;
+    private int maxTicksPerFrame;
+
+    private long lastTime = -1;
+    private long accumulator = 0;
+    private float alpha = 0;
+    private long droppedTicks = 0;
+
+    /**
+     * @param ticksPerSecond Physics tick rate
+     * @param maxTicksPerFrame Upper bound on ticks run for a single frame
+     */
+    public FixedTimestep(int ticksPerSecond, int maxTicksPerFrame) {
+        this.tickNanos = 1_000_000_000L / ticksPerSecond;
+        this.maxTicksPerFrame = maxTicksPerFrame;
+    }
+
+    /**
+     * Accumulate elapsed time and return how many ticks to run this frame
+     * @param now Current time from {@link System#nanoTime()}
+     */
+    public int advance(long now) {
+        if (lastTime < 0) {
+            lastTime = now;
+        }
+        accumulator += now - lastTime;
+        lastTime = now;
+
+        int ticks = (int) Math.min(accumulator / tickNanos, Integer.MAX_VALUE);
+        if (ticks > maxTicksPerFrame) {
+            droppedTicks += ticks - maxTicksPerFrame;
+            ticks = maxTicksPerFrame;
+            accumulator = 0;
+        } else {
+            accumulator -= ticks * tickNanos;
+        }
+
+        alpha = (float) accumulator / tickNanos;
+        return ticks;
+    }
+
+    /**
+     * Forget elapsed time, e.g. after a pause, so the next frame doesn't catch up
+     */
+    public void reset() {
+        lastTime = -1;
+        accumulator = 0;
+        alpha = 0;
+    }
+
+    /**
+     * Fraction of a tick left in the accumulator, in [0, 1)
+     */
+    public float getAlpha() {
+        return alpha;
+    }
+
+    public float getTickSeconds() {
+        return tickNanos / 1_000_000_000f;
+    }
+
+    public long getDroppedTicks() {
+        return droppedTicks;
+    }
+
+    public int getMaxTicksPerFrame() {
+        return maxTicksPerFrame;
+    }
+
+    public void setMaxTicksPerFrame(int maxTicksPerFrame) {
+        this.maxTicksPerFrame = maxTicksPerFrame;
+    }
+}
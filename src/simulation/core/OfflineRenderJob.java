@@ -0,0 +1,128 @@
+package simulation.core;
+
+import processing.core.PApplet;
+import processing.core.PGraphics;
+import simulation.audio.OfflineNoteRenderer;
+import simulation.recording.FrameSink;
+
+/**
+ * Renders a fixed number of frames as fast as the machine allows.
+ *
+ * Unlike live recording, nothing here depends on wall-clock time. Output frame
+ * n shows the simulation at exactly n / fps seconds: the job drives its own
+ * {@link FixedTimestep} from that time, with no cap on catch-up ticks, and
+ * sets the applet's frame counter to n so the rainbow colours follow the
+ * output rather than the window. Frames go to an offscreen buffer at the
+ * export resolution and the sink blocks instead of dropping, so two runs from
+ * the same settings produce identical frames.
+ *
+ * The job is driven from {@code draw()} in slices, several frames per call,
+ * so the window stays responsive and the screen's vsync doesn't pace it.
+ *
+ * With an audio renderer, each tick's bounce notes are stamped with the
+ * tick's own time, to the sample.
+ */
+public class OfflineRenderJob {
+    private final SimulationApp app;
+    private final FrameSink sink;
+    private final PGraphics buffer;
+    private final FixedTimestep timestep;
+    private final OfflineNoteRenderer audio;
+    private final int framesPerSecond;
+    private final int totalFrames;
+    private int frame = 0;
+    private long ticks = 0;
+
+    // Fit the window-sized scene into the export frame without stretching it
+    private final float scale;
+    private final float offsetX;
+    private final float offsetY;
+
+    /**
+     * @param app Simulation to step and draw
+     * @param sink Destination for the frames, switched to blocking
+     * @param width Export width in pixels
+     * @param height Export height in pixels
+     * @param framesPerSecond Output frame rate
+     * @param totalFrames Number of frames to render
+     * @param audio Receives the bounce notes, or null for no audio
+     */
+    public OfflineRenderJob(SimulationApp app, FrameSink sink, int width, int height,
+                            int framesPerSecond, int totalFrames, OfflineNoteRenderer audio) {
+        this.app = app;
+        this.sink = sink;
+        this.audio = audio;
+        this.framesPerSecond = framesPerSecond;
+        this.totalFrames = totalFrames;
+        this.timestep = new FixedTimestep(app.getPhysicsTickRate(), Integer.MAX_VALUE);
+
+        scale = Math.min((float) width / app.width, (float) height / app.height);
+        offsetX = (width - app.width * scale) / 2;
+        offsetY = (height - app.height * scale) / 2;
+
+        buffer = app.createGraphics(width, height, PApplet.P2D);
+        buffer.smooth(8);
+        sink.setBlocking(true);
+    }
+
+    /**
+     * Render frames until the job is done or the time budget is used up.
+     * The budget only decides how many frames this call renders, never what
+     * they contain.
+     * @return True once every frame has been submitted
+     */
+    public boolean renderFrames(long budgetMillis) {
+        long deadline = System.nanoTime() + budgetMillis * 1_000_000L;
+        int liveFrameCount = app.frameCount;
+        while (frame < totalFrames) {
+            renderFrame();
+            if (System.nanoTime() >= deadline) break;
+        }
+        app.frameCount = liveFrameCount;
+        return isFinished();
+    }
+
+    private void renderFrame() {
+        app.frameCount = frame;
+
+        // Frame n is at exactly n / fps seconds, whatever the real time is
+        long frameTime = frame * 1_000_000_000L / framesPerSecond;
+        int frameTicks = timestep.advance(frameTime);
+        for (int t = 0; t < frameTicks; t++) {
+            ticks++;
+            if (audio != null) {
+                audio.setPosition(audio.samplePosition(ticks, app.getPhysicsTickRate()));
+            }
+            app.stepPhysics();
+        }
+
+        buffer.beginDraw();
+        buffer.background(app.getBackgroundBrightness());
+        buffer.translate(offsetX, offsetY);
+        buffer.scale(scale);
+        app.drawToBuffer(buffer, timestep.getAlpha());
+        buffer.endDraw();
+
+        sink.submit(buffer);
+        frame++;
+    }
+
+    public boolean isFinished() {
+        return frame >= totalFrames;
+    }
+
+    public int getRenderedFrames() {
+        return frame;
+    }
+
+    public int getTotalFrames() {
+        return totalFrames;
+    }
+
+    /**
+     * The most recently rendered frame, e.g. for a preview
+     */
+    public PGraphics getBuffer() {
+        return buffer;
+    }
+}
@@ -4,7 +4,23 @@ import processing.core.PVector;
 import java.util.List;
 
 public class PhysicsEngine {
+    // Upper bound on exact bounces resolved within a single sub-step
+    private static final int MAX_CONTACTS_PER_STEP = 8;
+    // A sub-step may move a ball at most this fraction of its radius or the thinnest wall
+    private static final float MAX_TRAVEL_FRACTION = 0.5f;
+
     private final PVector gravity;
+    private int maxSubSteps = 16;
+
+    // Ball-ball collisions
+    private boolean ballCollisionsEnabled = true;
+    private float ballElasticity = 1.0f;
+    private BroadphaseStrategy broadphase = new UniformGridBroadphase();
+    private final CollisionPairs pairs = new CollisionPairs();
+
+    // Sub-step metrics from the most recent update
+    private int lastSubStepCount = 0;
+    private int lastMaxSubSteps = 0;
 
     public PhysicsEngine(float gravityStrength) {
         this.gravity = new PVector(0, gravityStrength);
@@ -15,12 +31,182 @@ public class PhysicsEngine {
     }
 
     public void update(Ball ball, List<Collidable> collidables) {
-        ball.resetBounceFlag();          // 🧼 reset at start of frame
-        ball.preserveVelocity();         // ✅ track velocity
-        ball.applyForce(gravity);
-        ball.update();
-        for (Collidable c : collidables) {
-            ball.checkCollision(c);      // this may call resolveCollision()
+        lastSubStepCount = 0;
+        lastMaxSubSteps = 0;
+        ball.getWorld().getBounceEvents().beginTick();
+        step(ball.getWorld(), ball.getIndex(), collidables, minWallThickness(collidables));
+    }
+
+    /**
+     * Advance every ball in the world by one tick
+     */
+    public void update(BallWorld world, List<Collidable> collidables) {
+        lastSubStepCount = 0;
+        lastMaxSubSteps = 0;
+        world.getBounceEvents().beginTick();
+        float minThickness = minWallThickness(collidables);
+        for (int i = 0, n = world.size(); i < n; i++) {
+            step(world, i, collidables, minThickness);
+        }
+
+        if (ballCollisionsEnabled && world.size() > 1) {
+            broadphase.findPairs(world, pairs);
+            resolveBallCollisions(world);
+        }
+    }
+
+    /**
+     * Separate overlapping balls and exchange momentum along the contact normal
+     */
+    private void resolveBallCollisions(BallWorld world) {
+        float[] x = world.getX();
+        float[] y = world.getY();
+        float[] vx = world.getVelocityX();
+        float[] vy = world.getVelocityY();
+        float[] radius = world.getRadius();
+        float[] stroke = world.getStrokeThickness();
+        float[] mass = world.getMass();
+        boolean[] locked = world.getLocked();
+
+        for (int p = 0, n = pairs.size(); p < n; p++) {
+            int a = pairs.getFirst(p);
+            int b = pairs.getSecond(p);
+
+            // Locked balls act as immovable obstacles
+            float invMassA = locked[a] ? 0 : 1f / mass[a];
+            float invMassB = locked[b] ? 0 : 1f / mass[b];
+            float invMassSum = invMassA + invMassB;
+            if (invMassSum == 0) continue;
+
+            float dx = x[b] - x[a];
+            float dy = y[b] - y[a];
+            float distance = (float) Math.sqrt(dx * dx + dy * dy);
+            float overlap = radius[a] + stroke[a] / 2f + radius[b] + stroke[b] / 2f - distance;
+            if (overlap <= 0) continue;
+
+            float nx, ny;
+            if (distance < 0.001f) {
+                nx = 0; // fallback to avoid NaN
+                ny = -1;
+            } else {
+                nx = dx / distance;
+                ny = dy / distance;
+            }
+
+            // Push apart in proportion to inverse mass
+            float push = overlap / invMassSum;
+            x[a] -= nx * push * invMassA;
+            y[a] -= ny * push * invMassA;
+            x[b] += nx * push * invMassB;
+            y[b] += ny * push * invMassB;
+
+            // Impulse only when approaching
+            float approach = (vx[b] - vx[a]) * nx + (vy[b] - vy[a]) * ny;
+            if (approach >= 0) continue;
+
+            float impulse = -(1 + ballElasticity) * approach / invMassSum;
+            world.setVelocity(a, vx[a] - nx * impulse * invMassA, vy[a] - ny * impulse * invMassA);
+            world.setVelocity(b, vx[b] + nx * impulse * invMassB, vy[b] + ny * impulse * invMassB);
+            Ball ballA = world.get(a);
+            Ball ballB = world.get(b);
+            ballA.markBounce(null, ballB, -nx, -ny, -approach);
+            ballB.markBounce(null, ballA, nx, ny, -approach);
+        }
+    }
+
+    private void step(BallWorld world, int i, List<Collidable> collidables, float minThickness) {
+        float[] vx = world.getVelocityX();
+        float[] vy = world.getVelocityY();
+
+        world.getJustBounced()[i] = false;           // reset at start of tick
+        world.getPreviousX()[i] = world.getX()[i];  // start of tick, for render interpolation
+        world.getPreviousY()[i] = world.getY()[i];
+        world.getPreviousVelocityX()[i] = vx[i];     // track velocity
+        world.getPreviousVelocityY()[i] = vy[i];
+        if (world.getLocked()[i]) return;
+
+        int subSteps = subStepCount(world, i, minThickness);
+        lastSubStepCount += subSteps;
+        lastMaxSubSteps = Math.max(lastMaxSubSteps, subSteps);
+
+        float dt = 1f / subSteps;
+        float m = world.getMass()[i];
+        Ball ball = world.get(i);
+
+        for (int s = 0; s < subSteps && !world.getLocked()[i]; s++) {
+            vx[i] += gravity.x / m * dt;
+            vy[i] += gravity.y / m * dt;
+
+            sweep(world, i, ball, collidables, dt);
+
+            // Collidables without a time-of-impact solver fall back to a discrete overlap test
+            for (int c = 0, n = collidables.size(); c < n; c++) {
+                Collidable collidable = collidables.get(c);
+                if (!(collidable instanceof ContinuousCollidable)) {
+                    ball.checkCollision(collidable);   // this may call resolveCollision()
+                }
+            }
+        }
+    }
+
+    /**
+     * One step for slow balls, more when a tick would carry the ball further
+     * than a fraction of its own radius or the thinnest wall
+     */
+    private int subStepCount(BallWorld world, int i, float minThickness) {
+        float vx = world.getVelocityX()[i];
+        float vy = world.getVelocityY()[i];
+        float effectiveRadius = world.getRadius()[i] + world.getStrokeThickness()[i] / 2f;
+
+        float maxTravel = Math.max(1f, Math.min(effectiveRadius, minThickness) * MAX_TRAVEL_FRACTION);
+        float travelSq = vx * vx + vy * vy;
+        if (travelSq <= maxTravel * maxTravel) return 1;
+
+        int steps = (int) Math.ceil(Math.sqrt(travelSq) / maxTravel);
+        return Math.min(steps, maxSubSteps);
+    }
+
+    private float minWallThickness(List<Collidable> collidables) {
+        float min = Float.MAX_VALUE;
+        for (int c = 0, n = collidables.size(); c < n; c++) {
+            Collidable collidable = collidables.get(c);
+            if (collidable instanceof Wall) {
+                min = Math.min(min, ((Wall) collidable).getThickness());
+            }
+        }
+        return min;
+    }
+
+    /**
+     * Move the ball along its velocity for dt of a tick, stopping at each exact
+     * contact with a continuous collidable so fast balls can't tunnel through
+     */
+    private void sweep(BallWorld world, int i, Ball ball, List<Collidable> collidables, float dt) {
+        float[] x = world.getX();
+        float[] y = world.getY();
+        float remaining = dt;
+
+        for (int contact = 0; contact < MAX_CONTACTS_PER_STEP; contact++) {
+            float earliest = remaining;
+            ContinuousCollidable hit = null;
+            for (int c = 0, n = collidables.size(); c < n; c++) {
+                Collidable collidable = collidables.get(c);
+                if (collidable instanceof ContinuousCollidable) {
+                    ContinuousCollidable candidate = (ContinuousCollidable) collidable;
+                    float t = candidate.timeOfImpact(ball, earliest);
+                    if (t >= 0) {
+                        earliest = t;
+                        hit = candidate;
+                    }
+                }
+            }
+
+            x[i] += world.getVelocityX()[i] * earliest;
+            y[i] += world.getVelocityY()[i] * earliest;
+            remaining -= earliest;
+
+            if (hit == null || world.getLocked()[i]) return;
+            hit.resolveContact(ball);
         }
     }
 
@@ -30,4 +216,54 @@ public class PhysicsEngine {
     public void setGravity(float gravityStrength) {
         this.gravity.set(0, gravityStrength);
     }
-}
\ No newline at end of file
+
+    public boolean isBallCollisionsEnabled() {
+        return ballCollisionsEnabled;
+    }
+
+    public void setBallCollisionsEnabled(boolean enabled) {
+        this.ballCollisionsEnabled = enabled;
+    }
+
+    public BroadphaseStrategy getBroadphase() {
+        return broadphase;
+    }
+
+    /**
+     * Choose the ball-ball broadphase, e.g. {@link SweepAndPruneBroadphase}
+     * for scenes with widely varying ball sizes
+     */
+    public void setBroadphase(BroadphaseStrategy broadphase) {
+        this.broadphase = broadphase;
+    }
+
+    public float getBallElasticity() {
+        return ballElasticity;
+    }
+
+    public void setBallElasticity(float elasticity) {
+        this.ballElasticity = elasticity;
+    }
+
+    public int getMaxSubSteps() {
+        return maxSubSteps;
+    }
+
+    public void setMaxSubSteps(int maxSubSteps) {
+        this.maxSubSteps = Math.max(1, maxSubSteps);
+    }
+
+    /**
+     * Total sub-steps taken across all balls in the most recent update
+     */
+    public int getLastSubStepCount() {
+        return lastSubStepCount;
+    }
+
+    /**
+     * Largest sub-step count any single ball needed in the most recent update
+     */
+    public int getLastMaxSubSteps() {
+        return lastMaxSubSteps;
+    }
+}
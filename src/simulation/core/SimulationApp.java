@@ -4,11 +4,16 @@ import processing.core.PApplet;
 import processing.core.PGraphics;
 import processing.core.PVector;
 import simulation.audio.NotePlayer;
+import simulation.audio.OfflineNoteRenderer;
 import simulation.audio.ProcessingNotePlayer;
 import simulation.config.SettingsManager;
 import simulation.effects.*;
 import simulation.gui.GuiManager;
 import simulation.rendering.BallRenderer;
+import simulation.rendering.RainbowPalette;
+import simulation.recording.AsyncPngFrameWriter;
+import simulation.recording.EncoderProcessStream;
+import simulation.recording.FrameSink;
 import processing.opengl.PJOGL;
 
 import java.io.File;
@@ -26,12 +31,19 @@ public class SimulationApp extends PApplet {
     private SettingsManager settings;
 
     // Core components
+    private BallWorld ballWorld;
     private Ball ball;
     private BallRenderer ballRenderer;
     private List<Wall> walls;
     private List<Collidable> collidables;
     private PhysicsEngine physicsEngine;
     private EffectSystem effectSystem;
+    private EffectHandle<BounceGrowthEffect> bounceGrowth;
+    private EffectHandle<BounceSpeedBoostEffect> bounceSpeedBoost;
+    private EffectHandle<MaxSizeStopEffect> maxSizeStop;
+    private EffectHandle<BallTraceEffect> ballTrace;
+    private EffectHandle<BounceNoteEffect> bounceNote;
+    private final FixedTimestep timestep = new FixedTimestep(PHYSICS_TICK_RATE, MAX_TICKS_PER_FRAME);
     private MaxSizeChecker maxSizeChecker;
     private NotePlayer notePlayer;
 
@@ -49,6 +61,15 @@ public class SimulationApp extends PApplet {
     private int recordingCounter = 0;
     private String exportFolderPath;
     private float recordingStartTime = 0;
+    private FrameSink frameWriter;
+    private boolean streamRecording = false; // Pipe frames to ffmpeg instead of writing PNGs
+
+    // Offline render state
+    private OfflineRenderJob offlineRender;
+    private boolean pausedBeforeOfflineRender;
+    private boolean notesBeforeOfflineRender;
+    private NotePlayer playerBeforeOfflineRender;
+    private static final long OFFLINE_SLICE_MILLIS = 200; // Render time per window frame
 
     // Visual settings
     private int backgroundBrightness = 0;
@@ -60,6 +81,9 @@ public class SimulationApp extends PApplet {
     private final int WINDOW_WIDTH = 1200;
     private final int WINDOW_HEIGHT = 800;
     private final int TARGET_FRAMERATE = 60;
+    private static final int PHYSICS_TICK_RATE = 60;
+    private static final int MAX_TICKS_PER_FRAME = 5;
+    private static final float WALL_RADIUS = 350;
     private boolean needResize = false;
     private int newWidth = WINDOW_WIDTH;
     private int newHeight = WINDOW_HEIGHT;
@@ -114,13 +138,13 @@ public class SimulationApp extends PApplet {
      * Initialize core simulation components
      */
     private void initializeSimulationComponents() {
-        float wallRadius = 350;
+        float wallRadius = WALL_RADIUS;
         float wallThickness = 10;
         float elasticity = 1.0f;
         PVector wallCenter = new PVector(width / 2f, height / 2f);
 
-        PVector ballPosition = new PVector(wallCenter.x + 100, wallCenter.y - wallRadius / 2);
-        ball = createBall(ballPosition);
+        ballWorld = new BallWorld();
+        ball = createBall(spawnPosition());
 
         ballRenderer = createBallRenderer();
 
@@ -134,11 +158,19 @@ public class SimulationApp extends PApplet {
         notePlayer.initialize();
     }
 
+    /**
+     * Where the primary ball starts: right of centre, halfway from the centre to the top of the wall
+     */
+    private PVector spawnPosition() {
+        return new PVector(width / 2f + 100, height / 2f - WALL_RADIUS / 2);
+    }
+
     /**
      * Create and configure a ball
      */
     private Ball createBall(PVector ballPosition) {
-        Ball newBall = new Ball(ballPosition, settings.getBallRadius(), settings.getBallMass());
+        int index = ballWorld.add(ballPosition.x, ballPosition.y, settings.getBallRadius(), settings.getBallMass());
+        Ball newBall = ballWorld.get(index);
         newBall.setStrokeThickness(settings.getBallStroke());
         newBall.setMaxSpeed(settings.getBallMaxSpeed());
         newBall.setColor(settings.getBallColor());
@@ -169,36 +201,34 @@ public class SimulationApp extends PApplet {
     private void initializeEffectSystem() {
         effectSystem = new EffectSystem();
 
-        BounceGrowthEffect bounceGrowth = new BounceGrowthEffect(settings.getGrowthAmount(), maxSizeChecker);
-        effectSystem.registerEffect(bounceGrowth);
+        bounceGrowth = effectSystem.registerEffect(
+                new BounceGrowthEffect(settings.getGrowthAmount(), maxSizeChecker));
 
-        BounceSpeedBoostEffect bounceSpeedBoost = new BounceSpeedBoostEffect(settings.getSpeedBoostFactor());
-        effectSystem.registerEffect(bounceSpeedBoost);
+        bounceSpeedBoost = effectSystem.registerEffect(
+                new BounceSpeedBoostEffect(settings.getSpeedBoostFactor()));
 
         PVector wallCenter = new PVector(width / 2f, height / 2f);
-        MaxSizeStopEffect maxSizeStop = new MaxSizeStopEffect(wallCenter, maxSizeChecker,
+        MaxSizeStopEffect maxSizeStopEffect = new MaxSizeStopEffect(wallCenter, maxSizeChecker,
                 settings.getGrowthAmount(), settings.getShouldStop(),
                 settings.getShouldShrink(), settings.getShrinkRate());
-        maxSizeStop.setEnforceWallBoundaryLimit(settings.isEnforceWallBoundaryLimit());
-        effectSystem.registerEffect(maxSizeStop);
+        maxSizeStopEffect.setEnforceWallBoundaryLimit(settings.isEnforceWallBoundaryLimit());
+        maxSizeStop = effectSystem.registerEffect(maxSizeStopEffect);
 
-        BallTraceEffect ballTrace = new BallTraceEffect(
+        ballTrace = effectSystem.registerEffect(new BallTraceEffect(
                 settings.getTraceFrequency(),
                 settings.getTraceLifetimeFrames(),
                 settings.getPermanentTraces(),
-                TARGET_FRAMERATE,
+                PHYSICS_TICK_RATE,
                 this,
                 settings.getTrailThicknessMultiplier()
-        );
-        effectSystem.registerEffect(ballTrace);
+        ));
 
-        BounceNoteEffect bounceNote = new BounceNoteEffect(
+        bounceNote = effectSystem.registerEffect(new BounceNoteEffect(
                 notePlayer,
                 settings,
                 maxSizeChecker.getWallRadius(),
                 settings.getBallMaxSpeed()
-        );
-        effectSystem.registerEffect(bounceNote);
+        ));
     }
 
     /**
@@ -256,16 +286,26 @@ public class SimulationApp extends PApplet {
             }
         }
 
-        // Only update physics if simulation has started and is not paused
-        if (simulationStarted && !paused) {
-            updatePhysics();
-        }
-
-        // Always draw the current state
-        if (highQualityRendering) {
-            drawHighQuality();
+        if (offlineRender != null) {
+            // The offline job owns the simulation until it finishes
+            drawOfflineRender();
         } else {
-            drawStandard();
+            // Run however many fixed ticks have accumulated since the last frame
+            if (simulationStarted && !paused) {
+                int ticks = timestep.advance(System.nanoTime());
+                for (int t = 0; t < ticks; t++) {
+                    updatePhysics();
+                }
+            } else {
+                timestep.reset();
+            }
+
+            // Always draw the current state
+            if (highQualityRendering) {
+                drawHighQuality();
+            } else {
+                drawStandard();
+            }
         }
 
         // Draw GUI
@@ -295,6 +335,17 @@ public class SimulationApp extends PApplet {
         return simulationStarted;
     }
 
+    /**
+     * Spawn an additional ball into the scene
+     */
+    public Ball addBall(float x, float y) {
+        return createBall(new PVector(x, y));
+    }
+
+    public BallWorld getBallWorld() {
+        return ballWorld;
+    }
+
 
 
 
@@ -303,8 +354,6 @@ public class SimulationApp extends PApplet {
      */
     private void drawStandard() {
         background(backgroundBrightness);
-        updatePhysics();
-        effectSystem.applyEffects(ball);
         renderScene(g);
     }
 
@@ -317,10 +366,6 @@ public class SimulationApp extends PApplet {
         renderBuffer.background(backgroundBrightness);
         renderBuffer.scale(renderScale);
 
-        // Update physics
-        updatePhysics();
-        effectSystem.applyEffects(ball);
-
         // Render to buffer
         renderScene(renderBuffer);
 
@@ -330,47 +375,88 @@ public class SimulationApp extends PApplet {
         image(renderBuffer, 0, 0, width, height);
     }
 
+    /**
+     * Render the next slice of the offline job and show its latest frame
+     */
+    private void drawOfflineRender() {
+        if (offlineRender.renderFrames(OFFLINE_SLICE_MILLIS)) {
+            finishOfflineRender();
+        }
+
+        background(0);
+        if (offlineRender != null) {
+            image(offlineRender.getBuffer(), 0, 0, width, height);
+        }
+    }
+
     /**
      * Draw the simulation to a specific buffer
      */
     public void drawToBuffer(PGraphics buffer) {
-        updatePhysics();
-        effectSystem.applyEffects(ball);
         renderScene(buffer);
     }
 
     /**
-     * Update physics state
+     * Draw the simulation to a specific buffer, interpolated the given
+     * fraction of a tick past the previous physics state
+     */
+    public void drawToBuffer(PGraphics buffer, float alpha) {
+        renderScene(buffer, alpha);
+    }
+
+    /**
+     * Advance the simulation by one fixed tick, outside the real-time loop
+     */
+    public void stepPhysics() {
+        updatePhysics();
+    }
+
+    /**
+     * Advance the simulation by one fixed tick
      */
     private void updatePhysics() {
-        if (simulationStarted && !paused) {
-            physicsEngine.update(ball, collidables);
-        }
+        effectSystem.applyPrePhysics(ballWorld);
+        physicsEngine.update(ballWorld, collidables);
+        effectSystem.dispatchBounces(ballWorld);
+        effectSystem.applyPostPhysics(ballWorld);
     }
 
     /**
      * Render the scene to the specified PGraphics context
      */
     private void renderScene(PGraphics graphics) {
-        BallTraceEffect traceEffect = effectSystem.getEffect(BallTraceEffect.class);
-        if (traceEffect != null && traceEffect.isEnabled()) {
-            traceEffect.display(this);
+        renderScene(graphics, timestep.getAlpha());
+    }
+
+    private void renderScene(PGraphics graphics, float alpha) {
+        effectSystem.render(graphics);
+
+        for (int i = 0; i < ballWorld.size(); i++) {
+            renderBall(graphics, ballWorld.get(i),
+                    ballWorld.getInterpolatedX(i, alpha), ballWorld.getInterpolatedY(i, alpha));
+        }
+
+        // Draw walls
+        for (Wall wall : walls) {
+            wall.display(graphics);
         }
+    }
 
-        // Draw the ball
+    /**
+     * Draw a single ball at its interpolated position and, if enabled, its velocity vector
+     */
+    private void renderBall(PGraphics graphics, Ball ball, float x, float y) {
         graphics.pushStyle();
         if (rainbowMode) {
-            float hue = (frameCount * colorSpeed * 2) % 360;
-            graphics.colorMode(HSB, 360, 100, 100, 100);
-            graphics.stroke(hue, 100, 100);
+            graphics.stroke(RainbowPalette.colorAt(frameCount * colorSpeed * 2));
         } else {
             graphics.stroke(ball.getColor());
         }
         graphics.strokeWeight(ball.getStrokeThickness());
         graphics.noFill();
         graphics.ellipse(
-                ball.getPosition().x,
-                ball.getPosition().y,
+                x,
+                y,
                 ball.getRadius() * 2,
                 ball.getRadius() * 2
         );
@@ -382,19 +468,9 @@ public class SimulationApp extends PApplet {
             graphics.stroke(255, 100, 100);
             graphics.strokeWeight(2);
             PVector vel = ball.getVelocity().copy().normalize().mult(ball.getRadius() * 1.5f);
-            graphics.line(
-                    ball.getPosition().x,
-                    ball.getPosition().y,
-                    ball.getPosition().x + vel.x,
-                    ball.getPosition().y + vel.y
-            );
+            graphics.line(x, y, x + vel.x, y + vel.y);
             graphics.popStyle();
         }
-
-        // Draw walls
-        for (Wall wall : walls) {
-            wall.display(this);
-        }
     }
 
     /**
@@ -408,11 +484,10 @@ public class SimulationApp extends PApplet {
             drawHighQuality();
         }
 
-        // Save the current frame
-        String frameFilename = String.format("%s/frames/frame_%05d.png", exportFolderPath, recordingCounter);
-        renderBuffer.save(frameFilename);
-
-        recordingCounter++;
+        // Hand the frame to the encoder pool; a dropped frame doesn't take a number
+        if (frameWriter.submit(renderBuffer)) {
+            recordingCounter++;
+        }
 
         // Check if recording time limit reached
         float currentDuration = (millis() - recordingStartTime) / 1000.0f;
@@ -442,6 +517,7 @@ public class SimulationApp extends PApplet {
         }
 
         recordingCounter = 0;
+        frameWriter = createFrameWriter();
         recording = true;
         recordingStartTime = millis();
 
@@ -457,16 +533,38 @@ public class SimulationApp extends PApplet {
         saveStrings(exportFolderPath + "/recording_info.txt", settings);
     }
 
+    /**
+     * Stream to ffmpeg when requested and available, otherwise write a PNG sequence
+     */
+    private FrameSink createFrameWriter() {
+        if (streamRecording) {
+            try {
+                return EncoderProcessStream.startFfmpeg(exportFolderPath,
+                        renderBuffer.pixelWidth, renderBuffer.pixelHeight, frameRate);
+            } catch (Exception e) {
+                System.err.println("Could not start ffmpeg, recording PNG frames instead: " + e.getMessage());
+            }
+        }
+        return AsyncPngFrameWriter.createDefault(exportFolderPath + "/frames/frame_%05d.png");
+    }
+
     /**
      * Stop recording frames
      */
     private void stopRecording() {
         recording = false;
 
+        // Remaining frames finish encoding in the background
+        frameWriter.shutdown();
+
         // Create a text file with FFmpeg command for the user
-        createFFmpegScript();
+        if (!(frameWriter instanceof EncoderProcessStream)) {
+            createFFmpegScript();
+        }
 
-        System.out.println("Recording complete! " + recordingCounter + " frames saved to " + exportFolderPath);
+        System.out.println("Recording complete! " + recordingCounter + " frames saved to " + exportFolderPath
+                + " (" + frameWriter.getQueueDepth() + " still encoding, "
+                + frameWriter.getDroppedFrames() + " dropped)");
     }
 
     /**
@@ -549,10 +647,7 @@ public class SimulationApp extends PApplet {
                 resetBall();
                 break;
             case 't':
-                BallTraceEffect traceEffect = effectSystem.getEffect(BallTraceEffect.class);
-                if (traceEffect != null) {
-                    traceEffect.setEnabled(!traceEffect.isEnabled());
-                }
+                ballTrace.setEnabled(!ballTrace.isEnabled());
                 break;
             case 's':
                 settings.setSoundEnabled(!settings.isSoundEnabled());
@@ -612,7 +707,7 @@ public class SimulationApp extends PApplet {
      */
     public void resetBall() {
         PVector wallCenter = new PVector(width / 2f, height / 2f);
-        ball.setPosition(new PVector(wallCenter.x, wallCenter.y - 50));
+        ballWorld.teleport(ball.getIndex(), wallCenter.x, wallCenter.y - 50);
         ball.setVelocity(new PVector(0, 0));
         ball.setRadius(settings.getBallRadius());
     }
@@ -647,11 +742,14 @@ public class SimulationApp extends PApplet {
      * Apply ball settings
      */
     public void applyBallSettings(float radius, float mass, float stroke, int color) {
-        // Update the ball
-        ball.setRadius(radius);
-        ball.setMass(mass);
-        ball.setStrokeThickness(stroke);
-        ball.setColor(color);
+        // Update every ball
+        for (int i = 0; i < ballWorld.size(); i++) {
+            Ball b = ballWorld.get(i);
+            b.setRadius(radius);
+            b.setMass(mass);
+            b.setStrokeThickness(stroke);
+            b.setColor(color);
+        }
     }
 
     /**
@@ -665,20 +763,14 @@ public class SimulationApp extends PApplet {
      * Update ball growth amount
      */
     public void updateBallGrowth(float growthAmount) {
-        BounceGrowthEffect effect = effectSystem.getEffect(BounceGrowthEffect.class);
-        if (effect != null) {
-            effect.setGrowthAmount(growthAmount);
-        }
+        bounceGrowth.get().setGrowthAmount(growthAmount);
     }
 
     /**
      * Update speed boost factor
      */
     public void updateSpeedBoost(float boostFactor) {
-        BounceSpeedBoostEffect effect = effectSystem.getEffect(BounceSpeedBoostEffect.class);
-        if (effect != null) {
-            effect.setBoostFactor(boostFactor);
-        }
+        bounceSpeedBoost.get().setBoostFactor(boostFactor);
     }
 
     /**
@@ -692,81 +784,58 @@ public class SimulationApp extends PApplet {
      * Set whether to stop at max size
      */
     public void setMaxSizeStop(boolean shouldStop) {
-        MaxSizeStopEffect effect = effectSystem.getEffect(MaxSizeStopEffect.class);
-        if (effect != null) {
-            effect.setShouldStop(shouldStop);
-        }
+        maxSizeStop.get().setShouldStop(shouldStop);
     }
 
     /**
      * Set whether to shrink at max size
      */
     public void setMaxSizeShrink(boolean shouldShrink, float shrinkRate) {
-        MaxSizeStopEffect effect = effectSystem.getEffect(MaxSizeStopEffect.class);
-        if (effect != null) {
-            effect.setShouldShrink(shouldShrink);
-            effect.setShrinkRate(shrinkRate);
-        }
+        MaxSizeStopEffect effect = maxSizeStop.get();
+        effect.setShouldShrink(shouldShrink);
+        effect.setShrinkRate(shrinkRate);
     }
 
     /**
      * Update shrink rate
      */
     public void updateShrinkRate(float shrinkRate) {
-        MaxSizeStopEffect effect = effectSystem.getEffect(MaxSizeStopEffect.class);
-        if (effect != null) {
-            effect.setShrinkRate(shrinkRate);
-        }
+        maxSizeStop.get().setShrinkRate(shrinkRate);
     }
 
     /**
      * Update wall boundary limit
      */
     public void updateWallBoundaryLimit(boolean enforce) {
-        MaxSizeStopEffect effect = effectSystem.getEffect(MaxSizeStopEffect.class);
-        if (effect != null) {
-            effect.setEnforceWallBoundaryLimit(enforce);
-        }
+        maxSizeStop.get().setEnforceWallBoundaryLimit(enforce);
     }
 
     /**
      * Update trace frequency
      */
     public void updateTraceFrequency(float frequencyPerSecond) {
-        BallTraceEffect effect = effectSystem.getEffect(BallTraceEffect.class);
-        if (effect != null) {
-            effect.setFrequency(frequencyPerSecond);
-        }
+        ballTrace.get().setFrequency(frequencyPerSecond);
     }
 
     /**
      * Update trace lifetime
      */
     public void updateTraceLifetime(int lifetimeFrames) {
-        BallTraceEffect effect = effectSystem.getEffect(BallTraceEffect.class);
-        if (effect != null) {
-            effect.setTraceLifetimeFrames(lifetimeFrames);
-        }
+        ballTrace.get().setTraceLifetimeFrames(lifetimeFrames);
     }
 
     /**
      * Set permanent traces mode
      */
     public void setPermanentTraces(boolean permanent) {
-        BallTraceEffect effect = effectSystem.getEffect(BallTraceEffect.class);
-        if (effect != null) {
-            effect.setPermanentTraces(permanent);
-        }
+        ballTrace.get().setPermanentTraces(permanent);
     }
 
     /**
      * Set trace enabled state
      */
     public void setTraceEnabled(boolean enabled) {
-        BallTraceEffect effect = effectSystem.getEffect(BallTraceEffect.class);
-        if (effect != null) {
-            effect.setEnabled(enabled);
-        }
+        ballTrace.setEnabled(enabled);
     }
 
     /**
@@ -780,24 +849,23 @@ public class SimulationApp extends PApplet {
      * Update trail thickness multiplier
      */
     public void updateTrailThicknessMultiplier(float multiplier) {
-        BallTraceEffect effect = effectSystem.getEffect(BallTraceEffect.class);
-        if (effect != null) {
-            effect.setTrailThicknessMultiplier(multiplier);
-        }
+        ballTrace.get().setTrailThicknessMultiplier(multiplier);
     }
 
     /**
      * Clear all traces
      */
     public void clearAllTraces() {
-        // Implement this in BallTraceEffect
+        ballTrace.get().clear();
     }
 
     /**
      * Set ball max speed
      */
     public void updateBallMaxSpeed(float maxSpeed) {
-        ball.setMaxSpeed(maxSpeed);
+        for (int i = 0; i < ballWorld.size(); i++) {
+            ballWorld.get(i).setMaxSpeed(maxSpeed);
+        }
     }
 
     /**
@@ -815,11 +883,9 @@ public class SimulationApp extends PApplet {
         settings.setNoteVolume(volume);
         settings.setNoteDuration(duration);
 
-        BounceNoteEffect effect = effectSystem.getEffect(BounceNoteEffect.class);
-        if (effect != null) {
-            effect.setMaxBallRadius(maxSizeChecker.getWallRadius());
-            effect.setMaxVelocity(settings.getBallMaxSpeed());
-        }
+        BounceNoteEffect effect = bounceNote.get();
+        effect.setMaxBallRadius(maxSizeChecker.getWallRadius());
+        effect.setMaxVelocity(settings.getBallMaxSpeed());
     }
 
     /**
@@ -939,7 +1005,7 @@ public class SimulationApp extends PApplet {
      * Set optimize traces option
      */
     public void setOptimizeTraces(boolean optimize) {
-        // Implement trace optimization
+        ballTrace.get().setBatchedRendering(optimize);
     }
 
     /**
@@ -948,7 +1014,7 @@ public class SimulationApp extends PApplet {
     public void toggleRecording() {
         if (recording) {
             stopRecording();
-        } else {
+        } else if (offlineRender == null) {
             startRecording();
         }
     }
@@ -967,6 +1033,31 @@ public class SimulationApp extends PApplet {
         return recordingCounter;
     }
 
+    /**
+     * Choose between streaming frames straight into ffmpeg and writing a PNG sequence
+     */
+    public void setStreamRecording(boolean stream) {
+        this.streamRecording = stream;
+    }
+
+    public boolean isStreamRecording() {
+        return streamRecording;
+    }
+
+    /**
+     * Frames waiting to be encoded, or 0 when not recording
+     */
+    public int getRecordingQueueDepth() {
+        return frameWriter != null ? frameWriter.getQueueDepth() : 0;
+    }
+
+    /**
+     * Frames dropped by the current or last recording because the encoders fell behind
+     */
+    public long getRecordingDroppedFrames() {
+        return frameWriter != null ? frameWriter.getDroppedFrames() : 0;
+    }
+
     /**
      * Get current recording duration in seconds
      */
@@ -975,6 +1066,101 @@ public class SimulationApp extends PApplet {
         return (millis() - recordingStartTime) / 1000.0f;
     }
 
+    /**
+     * Render frames offline from a freshly reset simulation. The live
+     * simulation is suspended until the job finishes, and bounce notes go to
+     * the audio renderer instead of the speakers.
+     * @param sink Destination for the frames; it is not shut down here
+     * @param audio Receives the bounce notes, or null to render silently
+     * @return False if a recording or another offline render is running
+     */
+    public boolean startOfflineRender(FrameSink sink, int width, int height, int framesPerSecond, int totalFrames,
+                                      OfflineNoteRenderer audio) {
+        if (recording || offlineRender != null) return false;
+
+        restoreInitialState();
+        pausedBeforeOfflineRender = paused;
+        notesBeforeOfflineRender = bounceNote.isEnabled();
+        playerBeforeOfflineRender = bounceNote.get().getNotePlayer();
+        paused = true;
+        if (audio != null) {
+            bounceNote.get().setNotePlayer(audio);
+        } else {
+            bounceNote.setEnabled(false);
+        }
+
+        offlineRender = new OfflineRenderJob(this, sink, width, height, framesPerSecond, totalFrames, audio);
+        return true;
+    }
+
+    /**
+     * Stop the offline render early, keeping the frames rendered so far
+     */
+    public void cancelOfflineRender() {
+        if (offlineRender != null) {
+            finishOfflineRender();
+        }
+    }
+
+    /**
+     * Put the scene back to how setup() left it, so every offline render
+     * starts from the same state: only the primary ball, at its spawn
+     * position, unlocked and at rest with its configured size, and no traces
+     */
+    private void restoreInitialState() {
+        // The primary ball is always the first one added
+        ballWorld.truncate(1);
+        PVector spawn = spawnPosition();
+        ballWorld.reset(ball.getIndex(), spawn.x, spawn.y, settings.getBallRadius(), settings.getBallMass());
+        ball.setStrokeThickness(settings.getBallStroke());
+        ball.setMaxSpeed(settings.getBallMaxSpeed());
+        ball.setColor(settings.getBallColor());
+        clearAllTraces();
+    }
+
+    private void finishOfflineRender() {
+        System.out.println("Offline render finished: " + offlineRender.getRenderedFrames() + "/"
+                + offlineRender.getTotalFrames() + " frames");
+        offlineRender = null;
+        paused = pausedBeforeOfflineRender;
+        bounceNote.get().setNotePlayer(playerBeforeOfflineRender);
+        bounceNote.setEnabled(notesBeforeOfflineRender);
+        timestep.reset();
+    }
+
+    public boolean isOfflineRendering() {
+        return offlineRender != null;
+    }
+
+    /**
+     * The running offline render, or null
+     */
+    public OfflineRenderJob getOfflineRender() {
+        return offlineRender;
+    }
+
+    public int getPhysicsTickRate() {
+        return PHYSICS_TICK_RATE;
+    }
+
+    public int getBackgroundBrightness() {
+        return backgroundBrightness;
+    }
+
+    /**
+     * Get the physics engine, e.g. for its sub-step metrics
+     */
+    public PhysicsEngine getPhysicsEngine() {
+        return physicsEngine;
+    }
+
+    /**
+     * Get the fixed timestep scheduler driving the physics
+     */
+    public FixedTimestep getTimestep() {
+        return timestep;
+    }
+
     /**
      * Set window size
      */
@@ -1,9 +1,8 @@
 package simulation.core;
 
-import processing.core.PApplet;
-import processing.core.PVector;
+import processing.core.PGraphics;
 
-public class StraightWall extends Wall {
+public class StraightWall extends Wall implements ContinuousCollidable {
     private final float y;
     private final float elasticity;
 
@@ -15,27 +14,42 @@ public class StraightWall extends Wall {
 
     @Override
     public boolean checkCollision(Ball ball) {
-        float ballBottom = ball.getPosition().y + ball.getEffectiveRadius();
-        return ballBottom >= y - thickness / 2 && ball.getVelocity().y > 0;
+        float ballBottom = ball.getY() + ball.getEffectiveRadius();
+        return ballBottom >= y - thickness / 2 && ball.getVelocityY() > 0;
     }
 
     @Override
     public void resolveCollision(Ball ball) {
-        PVector pos = ball.getPosition();
-        PVector vel = ball.getVelocity();
+        float impactSpeed = Math.abs(ball.getVelocityY());
+        ball.setVelocity(ball.getVelocityX(), ball.getVelocityY() * -elasticity);
+        ball.setPosition(ball.getX(), y - thickness / 2 - ball.getEffectiveRadius());
+        ball.markBounce(this, null, 0, -1, impactSpeed);
+    }
+
+    @Override
+    public float timeOfImpact(Ball ball, float maxTime) {
+        float vy = ball.getVelocityY();
+        if (vy <= 0) return NO_HIT;
 
-        pos.y = y - thickness / 2 - ball.getEffectiveRadius();
-        vel.y *= -elasticity;
+        float gap = (y - thickness / 2) - (ball.getY() + ball.getEffectiveRadius());
+        if (gap <= 0) return 0; // already touching
 
-        ball.setVelocity(vel);
-        ball.setPosition(pos);
-        ball.markBounce();
+        float t = gap / vy;
+        return t <= maxTime ? t : NO_HIT;
+    }
+
+    @Override
+    public void resolveContact(Ball ball) {
+        float impactSpeed = Math.abs(ball.getVelocityY());
+        ball.setPosition(ball.getX(), y - thickness / 2 - ball.getEffectiveRadius());
+        ball.setVelocity(ball.getVelocityX(), -ball.getVelocityY() * elasticity);
+        ball.markBounce(this, null, 0, -1, impactSpeed);
     }
 
     @Override
-    public void display(PApplet app) {
-        app.stroke(255);
-        app.strokeWeight(thickness);
-        app.line(0, y, app.width, y);
+    public void display(PGraphics graphics) {
+        graphics.stroke(255);
+        graphics.strokeWeight(thickness);
+        graphics.line(0, y, graphics.width, y);
     }
 }
\ No newline at end of file
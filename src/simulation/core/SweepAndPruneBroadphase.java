@@ -0,0 +1,92 @@
+package simulation.core;
+
+import java.util.Arrays;
+
+/**
+ * Sort-and-sweep broadphase along the x axis.
+ *
+ * Balls are kept sorted by the left edge of their bounding box. The order is
+ * reused between ticks and repaired with insertion sort, which is close to
+ * linear because balls move little from one tick to the next. Unlike the
+ * uniform grid, cost doesn't depend on the spread of ball sizes, which suits
+ * scenes where BounceGrowthEffect makes some balls much larger than others.
+ */
+public class SweepAndPruneBroadphase implements BroadphaseStrategy {
+    private int[] order = new int[0];
+    private float[] minX = new float[0];
+    private int tracked = 0;
+
+    @Override
+    public void findPairs(BallWorld world, CollisionPairs pairs) {
+        pairs.clear();
+        int n = world.size();
+        if (n < 2) return;
+
+        syncOrder(n);
+
+        float[] x = world.getX();
+        float[] y = world.getY();
+        float[] radius = world.getRadius();
+        float[] stroke = world.getStrokeThickness();
+
+        // Refresh keys in the existing order, then repair it
+        for (int k = 0; k < n; k++) {
+            int i = order[k];
+            minX[k] = x[i] - (radius[i] + stroke[i] / 2f);
+        }
+        insertionSort(n);
+
+        // Sweep: each ball only meets balls whose left edge starts before its right edge
+        for (int k = 0; k < n; k++) {
+            int i = order[k];
+            float ri = radius[i] + stroke[i] / 2f;
+            float maxX = x[i] + ri;
+
+            for (int m = k + 1; m < n && minX[m] <= maxX; m++) {
+                int j = order[m];
+                float reach = ri + radius[j] + stroke[j] / 2f;
+                float dy = y[j] - y[i];
+                if (dy > reach || dy < -reach) continue;
+
+                float dx = x[j] - x[i];
+                if (dx * dx + dy * dy < reach * reach) {
+                    pairs.add(Math.min(i, j), Math.max(i, j));
+                }
+            }
+        }
+    }
+
+    /**
+     * Keep the persistent order in step with the world: append new balls,
+     * rebuild from scratch if balls were removed
+     */
+    private void syncOrder(int n) {
+        if (n < tracked) {
+            tracked = 0;
+        }
+        if (order.length < n) {
+            int capacity = Math.max(n, order.length * 2);
+            order = Arrays.copyOf(order, capacity);
+            minX = Arrays.copyOf(minX, capacity);
+        }
+        for (int i = tracked; i < n; i++) {
+            order[i] = i;
+        }
+        tracked = n;
+    }
+
+    private void insertionSort(int n) {
+        for (int k = 1; k < n; k++) {
+            float key = minX[k];
+            int ball = order[k];
+            int m = k - 1;
+            while (m >= 0 && minX[m] > key) {
+                minX[m + 1] = minX[m];
+                order[m + 1] = order[m];
+                m--;
+            }
+            minX[m + 1] = key;
+            order[m + 1] = ball;
+        }
+    }
+}
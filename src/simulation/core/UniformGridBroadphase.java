@@ -0,0 +1,116 @@
+package simulation.core;
+
+import java.util.Arrays;
+
+/**
+ * Spatial hash broadphase for ball-ball collisions.
+ *
+ * Rebuilt every tick with a counting sort into primitive arrays: each ball is
+ * binned into one cell, cells are at least as wide as the largest ball, so
+ * any overlapping pair sits in the same or an adjacent cell. Pair testing is
+ * close to O(n) as long as ball sizes are similar.
+ */
+public class UniformGridBroadphase implements BroadphaseStrategy {
+    // Keep the grid from exploding when a few balls are spread far apart
+    private static final int MIN_CELLS = 64;
+    private static final int CELLS_PER_BALL = 2;
+
+    private int[] cellOfBall = new int[0];
+    private int[] cellStart = new int[0];
+    private int[] sortedBalls = new int[0];
+
+    private int columns;
+    private int rows;
+
+    @Override
+    public void findPairs(BallWorld world, CollisionPairs pairs) {
+        pairs.clear();
+        int n = world.size();
+        if (n < 2) return;
+
+        float[] x = world.getX();
+        float[] y = world.getY();
+        float[] radius = world.getRadius();
+        float[] stroke = world.getStrokeThickness();
+
+        // Bounds and largest ball for this tick
+        float minX = Float.MAX_VALUE, minY = Float.MAX_VALUE;
+        float maxX = -Float.MAX_VALUE, maxY = -Float.MAX_VALUE;
+        float maxRadius = 0;
+        for (int i = 0; i < n; i++) {
+            minX = Math.min(minX, x[i]);
+            minY = Math.min(minY, y[i]);
+            maxX = Math.max(maxX, x[i]);
+            maxY = Math.max(maxY, y[i]);
+            maxRadius = Math.max(maxRadius, radius[i] + stroke[i] / 2f);
+        }
+
+        float cellSize = Math.max(2 * maxRadius, 1f);
+        float width = maxX - minX;
+        float height = maxY - minY;
+        int maxCells = Math.max(MIN_CELLS, n * CELLS_PER_BALL);
+        while ((width / cellSize + 1) * (height / cellSize + 1) > maxCells) {
+            cellSize *= 2;
+        }
+        columns = (int) (width / cellSize) + 1;
+        rows = (int) (height / cellSize) + 1;
+        int cellCount = columns * rows;
+
+        ensureCapacity(n, cellCount);
+
+        // Counting sort of balls by cell
+        Arrays.fill(cellStart, 0, cellCount + 1, 0);
+        float inverseCell = 1f / cellSize;
+        for (int i = 0; i < n; i++) {
+            int cx = (int) ((x[i] - minX) * inverseCell);
+            int cy = (int) ((y[i] - minY) * inverseCell);
+            int cell = cy * columns + cx;
+            cellOfBall[i] = cell;
+            cellStart[cell + 1]++;
+        }
+        for (int c = 0; c < cellCount; c++) {
+            cellStart[c + 1] += cellStart[c];
+        }
+        // cellStart[c] is used as an insertion cursor, then restored by shifting
+        for (int i = 0; i < n; i++) {
+            sortedBalls[cellStart[cellOfBall[i]]++] = i;
+        }
+        System.arraycopy(cellStart, 0, cellStart, 1, cellCount);
+        cellStart[0] = 0;
+
+        // Test each ball against later balls in its own and neighbouring cells
+        for (int i = 0; i < n; i++) {
+            int cell = cellOfBall[i];
+            int cx = cell % columns;
+            int cy = cell / columns;
+            float ri = radius[i] + stroke[i] / 2f;
+
+            for (int ny = Math.max(0, cy - 1); ny <= Math.min(rows - 1, cy + 1); ny++) {
+                for (int nx = Math.max(0, cx - 1); nx <= Math.min(columns - 1, cx + 1); nx++) {
+                    int neighbour = ny * columns + nx;
+                    for (int s = cellStart[neighbour], end = cellStart[neighbour + 1]; s < end; s++) {
+                        int j = sortedBalls[s];
+                        if (j <= i) continue;
+
+                        float dx = x[j] - x[i];
+                        float dy = y[j] - y[i];
+                        float reach = ri + radius[j] + stroke[j] / 2f;
+                        if (dx * dx + dy * dy < reach * reach) {
+                            pairs.add(i, j);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private void ensureCapacity(int balls, int cells) {
+        if (cellOfBall.length < balls) {
+            cellOfBall = new int[balls * 2];
+            sortedBalls = new int[balls * 2];
+        }
+        if (cellStart.length < cells + 1) {
+            cellStart = new int[(cells + 1) * 2];
+        }
+    }
+}
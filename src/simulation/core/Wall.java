@@ -1,6 +1,7 @@
 package simulation.core;
 
 import processing.core.PApplet;
+import processing.core.PGraphics;
 
 public abstract class Wall implements Collidable {
     protected final float thickness;
@@ -13,5 +14,12 @@ public abstract class Wall implements Collidable {
         return thickness;
     }
 
-    public abstract void display(PApplet app);
+    public void display(PApplet app) {
+        display(app.g);
+    }
+
+    /**
+     * Draw the wall into the given context, e.g. an offscreen render buffer
+     */
+    public abstract void display(PGraphics graphics);
 }
\ No newline at end of file
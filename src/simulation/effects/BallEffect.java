@@ -1,9 +1,28 @@
 package simulation.effects;
 
+import java.util.Collections;
+import java.util.List;
 import simulation.core.Ball;
+import simulation.core.BounceListener;
 
 public interface BallEffect {
     void apply(Ball ball);
     boolean isEnabled();
     void setEnabled(boolean enabled);
-}
\ No newline at end of file
+
+    /**
+     * Phase in which this effect runs. Bounce listeners default to
+     * {@link EffectPhase#ON_BOUNCE}, everything else to {@link EffectPhase#POST_PHYSICS}.
+     */
+    default EffectPhase getPhase() {
+        return this instanceof BounceListener ? EffectPhase.ON_BOUNCE : EffectPhase.POST_PHYSICS;
+    }
+
+    /**
+     * Effect types that must run before this one within the same phase.
+     * Types that aren't registered are ignored.
+     */
+    default List<Class<? extends BallEffect>> getDependencies() {
+        return Collections.emptyList();
+    }
+}
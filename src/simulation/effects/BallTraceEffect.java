@@ -1,33 +1,31 @@
 package simulation.effects;
 
 import processing.core.PApplet;
-import processing.core.PVector;
+import processing.core.PGraphics;
 import simulation.core.Ball;
+import simulation.core.BallWorld;
+import simulation.rendering.TraceBatchRenderer;
 
-import java.util.ArrayList;
-import java.util.Iterator;
-import java.util.List;
+public class BallTraceEffect implements RenderEffect, WorldEffect {
+    private static final int DEFAULT_CAPACITY = 4096;
+    private static final float TRACE_STROKE_WEIGHT = 10; // Use a fixed, clearly visible value like 10 pixels
+    // Old traces may deviate from a true circle by this much, well inside the stroke width
+    private static final float LOD_TOLERANCE_PX = 1.0f;
+    // Accumulation layer pixels per window pixel, so it stays sharp in 2x renders and exports
+    private static final int ACCUMULATION_SCALE = 2;
 
-public class BallTraceEffect implements BallEffect {
+    // Ring buffer of live traces, oldest at head. Expiry just advances head.
+    private float[] traceX;
+    private float[] traceY;
+    private float[] traceRadius;
+    private float[] traceStroke; // Store the original thickness
+    private int[] traceColor;
+    private int[] traceBirth;
+    private int[] traceLastCapture; // Later than birth once decimation has folded captures in
+    private int head = 0;
+    private int size = 0;
 
-    private static class Trace {
-        PVector position;
-        float radius;
-        float stroke;
-        int color;
-        int lifetime;
-
-
-        Trace(Ball ball, int lifetime, int color) {
-            this.position = ball.getPosition().copy();
-            this.radius = ball.getRadius();
-            this.stroke = ball.getStrokeThickness(); // Store the original thickness
-            this.color = color;
-            this.lifetime = lifetime;
-        }
-    }
-
-    private final List<Trace> traces = new ArrayList<>();
+    private int tick = 0;
     private int frameCounter = 0;
 
     private int captureIntervalFrames;
@@ -36,6 +34,28 @@ public class BallTraceEffect implements BallEffect {
     private float currentFrameRate;
     private boolean enabled = true;
     private PApplet applet;
+
+    // Permanent traces are burned into this layer once and then dropped from the ring
+    private boolean accumulatePermanentTraces = true;
+    private PGraphics accumulationLayer;
+    private int layerRetiredTick = -1; // Permanent mode was turned off here; the layer fades out
+
+    // Batched rendering: ring slots changed since the last frame
+    private boolean batchedRendering = true;
+    private TraceBatchRenderer batchRenderer;
+    private boolean[] slotDirty;
+    private int[] dirtySlots;
+    private int dirtyCount = 0;
+    private boolean batchNeedsFullRewrite = true;
+
+    // Decimation: a capture that barely moved refreshes the newest trace instead of stacking a copy
+    private float decimationThreshold = 1.0f;
+    private long decimatedCaptures = 0;
+
+    // Level of detail: traces at least lodAgeFrames old are drawn with fewer segments
+    private boolean levelOfDetail = true;
+    private int lodAgeFrames = 60;
+
     private float trailThicknessMultiplier = 1.0f; // Default is same as ball
 
     public BallTraceEffect(
@@ -51,6 +71,7 @@ public class BallTraceEffect implements BallEffect {
         this.permanentTraces = permanentTraces;
         this.applet = applet;
         this.trailThicknessMultiplier = 1.0f; // Default same as ball
+        allocate(Math.max(DEFAULT_CAPACITY, traceLifetimeFrames));
     }
 
     // Overload constructor to allow specifying trail thickness multiplier
@@ -66,34 +87,310 @@ public class BallTraceEffect implements BallEffect {
         this.trailThicknessMultiplier = trailThicknessMultiplier;
     }
 
+    /**
+     * Treat the ball as a world of its own: one tick, one ball
+     */
     @Override
     public void apply(Ball ball) {
+        boolean capture = advanceTick();
+        if (capture) {
+            capture(ball);
+        }
+        expireTraces();
+    }
+
+    /**
+     * Advance the capture and lifetime clocks once for the tick, then capture
+     * every ball if the interval is up
+     */
+    @Override
+    public void applyToWorld(BallWorld world) {
+        boolean capture = advanceTick();
+        if (capture) {
+            for (int b = 0, count = world.size(); b < count; b++) {
+                capture(world.get(b));
+            }
+        }
+        expireTraces();
+    }
+
+    private boolean advanceTick() {
+        tick++;
         frameCounter++;
-        if (frameCounter >= captureIntervalFrames) {
-            frameCounter = 0;
-            int currentColor = ball.getCurrentVisualStrokeColor(applet);
-            traces.add(new Trace(ball, traceLifetimeFrames, currentColor));
+        if (frameCounter < captureIntervalFrames) return false;
+        frameCounter = 0;
+        return true;
+    }
+
+    private void capture(Ball ball) {
+        int currentColor = ball.getCurrentVisualStrokeColor(applet);
+        if (!refreshNewestTrace(ball, currentColor)) {
+            addTrace(ball, currentColor);
         }
+    }
 
+    private void expireTraces() {
         if (!permanentTraces) {
-            Iterator<Trace> it = traces.iterator();
-            while (it.hasNext()) {
-                Trace t = it.next();
-                t.lifetime--;
-                if (t.lifetime <= 0) it.remove();
+            // A trace lives for traceLifetimeFrames ticks including the one that captured it
+            while (size > 0 && tick - traceLastCapture[head] + 1 >= traceLifetimeFrames) {
+                dropOldest();
             }
         }
     }
 
-    // In BallTraceEffect class, modify the display method
+    /**
+     * If the ball is within the decimation threshold of the newest trace and
+     * hasn't changed size, recolour that trace instead of adding a
+     * near-identical ring on top of it. The newest ring is the one drawn on
+     * top, so the picture is the same. The trace keeps its birth tick, so its
+     * age for level of detail is unchanged, and expires a lifetime after the
+     * last capture folded into it, as the newest copy would have.
+     */
+    private boolean refreshNewestTrace(Ball ball, int color) {
+        if (size == 0 || decimationThreshold <= 0) return false;
+
+        int slot = (head + size - 1) % traceX.length;
+        if (traceRadius[slot] != ball.getRadius()) return false;
+
+        float dx = ball.getX() - traceX[slot];
+        float dy = ball.getY() - traceY[slot];
+        if (dx * dx + dy * dy >= decimationThreshold * decimationThreshold) return false;
+
+        traceColor[slot] = color;
+        traceLastCapture[slot] = tick;
+        markDirty(slot);
+        decimatedCaptures++;
+        return true;
+    }
+
+    private void dropOldest() {
+        markDirty(head);
+        head = (head + 1) % traceX.length;
+        size--;
+    }
+
+    private void addTrace(Ball ball, int color) {
+        if (size == traceX.length) {
+            if (permanentTraces) {
+                grow(traceX.length * 2);
+            } else {
+                // Full: overwrite the oldest trace
+                dropOldest();
+            }
+        }
+
+        int slot = (head + size) % traceX.length;
+        traceX[slot] = ball.getX();
+        traceY[slot] = ball.getY();
+        traceRadius[slot] = ball.getRadius();
+        traceStroke[slot] = ball.getStrokeThickness();
+        traceColor[slot] = color;
+        traceBirth[slot] = tick;
+        traceLastCapture[slot] = tick;
+        size++;
+        markDirty(slot);
+    }
+
+    private void markDirty(int slot) {
+        if (!slotDirty[slot]) {
+            slotDirty[slot] = true;
+            dirtySlots[dirtyCount++] = slot;
+        }
+    }
+
     public void display(PApplet app) {
-        for (Trace t : traces) {
-            app.colorMode(PApplet.RGB, 255);
-            app.stroke(t.color);
-            app.strokeWeight(10); // Use a fixed, clearly visible value like 10 pixels
-            app.noFill();
-            app.ellipse(t.position.x, t.position.y, t.radius * 2, t.radius * 2);
+        display(app.g);
+    }
+
+    /**
+     * Draw the traces into the given context. Permanent traces are first burned
+     * into the accumulation layer, so each one is drawn exactly once.
+     */
+    public void display(PGraphics graphics) {
+        if (permanentTraces && accumulatePermanentTraces) {
+            burnIntoAccumulationLayer();
+            graphics.image(accumulationLayer, 0, 0, applet.width, applet.height);
+            return;
+        }
+        if (accumulationLayer != null) {
+            drawRetiredLayer(graphics);
+        }
+        if (batchedRendering) {
+            flushBatch();
+            batchRenderer.draw(graphics, head, size);
+            return;
         }
+        drawTraces(graphics);
+    }
+
+    /**
+     * Push ring changes since the last frame into the retained batch geometry
+     */
+    private void flushBatch() {
+        int capacity = traceX.length;
+        if (batchRenderer == null) {
+            batchRenderer = new TraceBatchRenderer(applet, TRACE_STROKE_WEIGHT);
+        }
+
+        boolean rebuilt = batchRenderer.ensureCapacity(capacity);
+        if (rebuilt || batchNeedsFullRewrite) {
+            for (int n = 0; n < size; n++) {
+                writeBatchSlot((head + n) % capacity);
+            }
+            batchNeedsFullRewrite = false;
+        } else {
+            // Expired slots fall outside the drawn range, so only live ones need writing
+            for (int d = 0; d < dirtyCount; d++) {
+                int slot = dirtySlots[d];
+                boolean live = (slot - head + capacity) % capacity < size;
+                if (live) {
+                    writeBatchSlot(slot);
+                }
+            }
+        }
+
+        for (int d = 0; d < dirtyCount; d++) {
+            slotDirty[dirtySlots[d]] = false;
+        }
+        dirtyCount = 0;
+    }
+
+    private void writeBatchSlot(int slot) {
+        batchRenderer.setRing(slot, traceX[slot], traceY[slot], traceRadius[slot], traceColor[slot]);
+    }
+
+    private boolean isLowDetail(int slot) {
+        return levelOfDetail && tick - traceBirth[slot] >= lodAgeFrames;
+    }
+
+    private int segmentsFor(int slot) {
+        return isLowDetail(slot)
+                ? TraceBatchRenderer.segmentsFor(traceRadius[slot], LOD_TOLERANCE_PX)
+                : TraceBatchRenderer.SEGMENTS;
+    }
+
+    private void drawTraces(PGraphics graphics) {
+        int capacity = traceX.length;
+        for (int n = 0; n < size; n++) {
+            int t = (head + n) % capacity;
+            graphics.colorMode(PApplet.RGB, 255);
+            graphics.stroke(traceColor[t]);
+            graphics.strokeWeight(TRACE_STROKE_WEIGHT);
+            graphics.noFill();
+            int segments = segmentsFor(t);
+            if (segments < TraceBatchRenderer.SEGMENTS) {
+                TraceBatchRenderer.drawRing(graphics, traceX[t], traceY[t], traceRadius[t], segments);
+            } else {
+                graphics.ellipse(traceX[t], traceY[t], traceRadius[t] * 2, traceRadius[t] * 2);
+            }
+        }
+    }
+
+    /**
+     * Draw traces captured since the last frame into the persistent layer and
+     * drop them from memory. The layer has a fixed resolution in window
+     * coordinates and is never resampled; every target, whatever its size,
+     * scales it in at draw time.
+     */
+    private void burnIntoAccumulationLayer() {
+        if (accumulationLayer == null) {
+            accumulationLayer = applet.createGraphics(applet.width * ACCUMULATION_SCALE,
+                    applet.height * ACCUMULATION_SCALE, PApplet.P2D);
+            accumulationLayer.smooth(4);
+            accumulationLayer.beginDraw();
+            accumulationLayer.clear();
+            accumulationLayer.endDraw();
+        }
+        layerRetiredTick = -1;
+        if (size == 0) return;
+
+        accumulationLayer.beginDraw();
+        accumulationLayer.scale(ACCUMULATION_SCALE);
+        drawTraces(accumulationLayer);
+        accumulationLayer.endDraw();
+        clearRing();
+    }
+
+    /**
+     * Burned traces no longer know their age, so once permanent mode is off
+     * the layer fades out over one trace lifetime, the time its newest trace
+     * would have had left, and is then dropped
+     */
+    private void drawRetiredLayer(PGraphics graphics) {
+        if (permanentTraces) {
+            // Only accumulation was turned off; traces already burned stay
+            graphics.image(accumulationLayer, 0, 0, applet.width, applet.height);
+            return;
+        }
+        if (layerRetiredTick < 0) {
+            layerRetiredTick = tick;
+        }
+        int age = tick - layerRetiredTick;
+        if (age >= traceLifetimeFrames) {
+            accumulationLayer = null;
+            return;
+        }
+
+        graphics.pushStyle();
+        graphics.tint(255, 255 * (1 - (float) age / traceLifetimeFrames));
+        graphics.image(accumulationLayer, 0, 0, applet.width, applet.height);
+        graphics.popStyle();
+    }
+
+    /**
+     * Remove every trace
+     */
+    public void clear() {
+        clearRing();
+        frameCounter = 0;
+        accumulationLayer = null;
+        layerRetiredTick = -1;
+    }
+
+    private void clearRing() {
+        head = 0;
+        size = 0;
+        batchNeedsFullRewrite = true;
+    }
+
+    public int getTraceCount() {
+        return size;
+    }
+
+    private void allocate(int capacity) {
+        traceX = new float[capacity];
+        traceY = new float[capacity];
+        traceRadius = new float[capacity];
+        traceStroke = new float[capacity];
+        traceColor = new int[capacity];
+        traceBirth = new int[capacity];
+        traceLastCapture = new int[capacity];
+        slotDirty = new boolean[capacity];
+        dirtySlots = new int[capacity];
+        dirtyCount = 0;
+        batchNeedsFullRewrite = true;
+    }
+
+    /**
+     * Resize the ring, keeping live traces in order starting at index 0
+     */
+    private void grow(int capacity) {
+        float[] x = traceX, y = traceY, radius = traceRadius, stroke = traceStroke;
+        int[] color = traceColor, birth = traceBirth, lastCapture = traceLastCapture;
+        int oldCapacity = x.length;
+
+        allocate(capacity);
+        for (int n = 0; n < size; n++) {
+            int t = (head + n) % oldCapacity;
+            traceX[n] = x[t];
+            traceY[n] = y[t];
+            traceRadius[n] = radius[t];
+            traceStroke[n] = stroke[t];
+            traceColor[n] = color[t];
+            traceBirth[n] = birth[t];
+            traceLastCapture[n] = lastCapture[t];
+        }
+        head = 0;
     }
 
     // Runtime-adjustable setters
@@ -111,6 +408,9 @@ public class BallTraceEffect implements BallEffect {
 
     public void setTraceLifetimeFrames(int frames) {
         this.traceLifetimeFrames = frames;
+        if (frames > traceX.length) {
+            grow(frames);
+        }
     }
 
     public void setPermanentTraces(boolean permanent) {
@@ -125,6 +425,75 @@ public class BallTraceEffect implements BallEffect {
         return traceLifetimeFrames;
     }
 
+    /**
+     * Choose between burning permanent traces into an offscreen layer (bounded
+     * memory, O(new traces) per frame) and keeping every trace in the ring.
+     * Traces already burned stay on screen either way.
+     */
+    public void setAccumulatePermanentTraces(boolean accumulate) {
+        this.accumulatePermanentTraces = accumulate;
+    }
+
+    public boolean isAccumulatePermanentTraces() {
+        return accumulatePermanentTraces;
+    }
+
+    /**
+     * Draw live traces from one retained geometry buffer instead of one
+     * immediate-mode ellipse per trace
+     */
+    public void setBatchedRendering(boolean batched) {
+        if (batched && !batchedRendering) {
+            batchNeedsFullRewrite = true;
+        }
+        this.batchedRendering = batched;
+    }
+
+    public boolean isBatchedRendering() {
+        return batchedRendering;
+    }
+
+    /**
+     * Minimum movement in pixels before a new trace is captured at the same
+     * radius; 0 captures every time
+     */
+    public void setDecimationThreshold(float pixels) {
+        this.decimationThreshold = pixels;
+    }
+
+    public float getDecimationThreshold() {
+        return decimationThreshold;
+    }
+
+    /**
+     * Captures folded into the newest trace instead of adding a ring
+     */
+    public long getDecimatedCaptureCount() {
+        return decimatedCaptures;
+    }
+
+    /**
+     * Draw traces older than the LOD age with as few segments as keep them
+     * within a pixel of a true circle, so they submit fewer vertices. Applies
+     * to the immediate path and to burning permanent traces; the batched
+     * path has a fixed-size slot per ring and always draws full detail.
+     */
+    public void setLevelOfDetail(boolean enabled) {
+        this.levelOfDetail = enabled;
+    }
+
+    public boolean isLevelOfDetail() {
+        return levelOfDetail;
+    }
+
+    public void setLodAgeFrames(int frames) {
+        this.lodAgeFrames = frames;
+    }
+
+    public int getLodAgeFrames() {
+        return lodAgeFrames;
+    }
+
     public boolean isPermanentTraces() {
         return permanentTraces;
     }
@@ -0,0 +1,22 @@
+package simulation.effects;
+
+import simulation.core.BallWorld;
+import simulation.core.BounceListener;
+
+/**
+ * An on-bounce effect that can process all of a tick's bounces in one call.
+ *
+ * {@link EffectSystem#dispatchBounces} prefers this over one
+ * {@link BounceListener#onBounce} call per bounced ball. A ball appears once per
+ * tick, however many contacts it made, in order of its first contact.
+ */
+public interface BatchBounceEffect extends BounceListener {
+    void applyBatch(BallWorld world, int[] bouncedIndices, int count);
+
+    /**
+     * Whether only wall contacts should be passed in, leaving out ball-ball contacts
+     */
+    default boolean isWallBouncesOnly() {
+        return false;
+    }
+}
@@ -1,8 +1,12 @@
 package simulation.effects;
 
 import simulation.core.Ball;
+import simulation.core.BallWorld;
+import simulation.core.BounceEvent;
+import simulation.logging.EventLog;
+import simulation.logging.LogLevel;
 
-public class BounceGrowthEffect implements BallEffect {
+public class BounceGrowthEffect implements BallEffect, BatchBounceEffect {
     private float growthAmount;
     private boolean enabled = true;
     private final MaxSizeChecker sizeChecker;
@@ -14,14 +18,39 @@ public class BounceGrowthEffect implements BallEffect {
 
     @Override
     public void apply(Ball ball) {
-        if (!ball.hasJustBounced()) return;
+        if (ball.hasJustBounced()) {
+            grow(ball);
+        }
+    }
+
+    @Override
+    public void onBounce(BounceEvent event) {
+        grow(event.getBall());
+    }
+
+    @Override
+    public void applyBatch(BallWorld world, int[] bouncedIndices, int count) {
+        float[] radius = world.getRadius();
+        float[] stroke = world.getStrokeThickness();
+
+        for (int k = 0; k < count; k++) {
+            int i = bouncedIndices[k];
+            if (sizeChecker.canGrow(radius[i] + stroke[i] / 2f, growthAmount)) {
+                radius[i] += growthAmount;
+                EventLog.log(LogLevel.DEBUG, "✅ Bounce! New radius: %.2f", radius[i]);
+            } else {
+                EventLog.log(LogLevel.DEBUG, "🛑 Max size reached. Growth blocked.");
+            }
+        }
+    }
 
+    private void grow(Ball ball) {
         float effectiveRadius = ball.getEffectiveRadius();
         if (sizeChecker.canGrow(ball, effectiveRadius, growthAmount)) {
             ball.setRadius(ball.getRadius() + growthAmount);
-            System.out.println("✅ Bounce! New radius: " + ball.getRadius());
+            EventLog.log(LogLevel.DEBUG, "✅ Bounce! New radius: %.2f", ball.getRadius());
         } else {
-            System.out.println("🛑 Max size reached. Growth blocked.");
+            EventLog.log(LogLevel.DEBUG, "🛑 Max size reached. Growth blocked.");
         }
     }
 
@@ -1,12 +1,16 @@
 package simulation.effects;
 
+import java.util.Arrays;
+import java.util.List;
 import simulation.audio.NotePlayer;
 import simulation.audio.NoteUtility;
 import simulation.core.Ball;
+import simulation.core.BounceEvent;
+import simulation.core.BounceListener;
 import simulation.config.SettingsManager;
 
-public class BounceNoteEffect implements BallEffect {
-    private final NotePlayer notePlayer;
+public class BounceNoteEffect implements BallEffect, BounceListener {
+    private NotePlayer notePlayer;
     private final SettingsManager settings;
     private boolean enabled = true;
     private float maxBallRadius;
@@ -28,20 +32,31 @@ public class BounceNoteEffect implements BallEffect {
 
         // Only play sound on actual bounce events
         if (ball.hasJustBounced()) {
-            int pitch = calculatePitch(ball);
-            float velocity = settings.getNoteVolume();
-            int duration = settings.getNoteDuration();
+            playNote(ball);
+        }
+    }
 
-            if (debug) {
-                System.out.printf("🎵 Playing note %s (pitch %d) | Instrument: %s | Volume: %.2f | Duration: %dms\n",
-                        NoteUtility.pitchToNoteName(pitch), pitch,
-                        NoteUtility.getInstrumentName(settings.getBounceInstrument()),
-                        velocity, duration);
-            }
+    @Override
+    public void onBounce(BounceEvent event) {
+        if (settings.isSoundEnabled()) {
+            playNote(event.getBall());
+        }
+    }
+
+    private void playNote(Ball ball) {
+        int pitch = calculatePitch(ball);
+        float velocity = settings.getNoteVolume();
+        int duration = settings.getNoteDuration();
 
-            notePlayer.setInstrument(settings.getBounceInstrument());
-            notePlayer.playNote(pitch, velocity, duration);
+        if (debug) {
+            System.out.printf("🎵 Playing note %s (pitch %d) | Instrument: %s | Volume: %.2f | Duration: %dms\n",
+                    NoteUtility.pitchToNoteName(pitch), pitch,
+                    NoteUtility.getInstrumentName(settings.getBounceInstrument()),
+                    velocity, duration);
         }
+
+        notePlayer.setInstrument(settings.getBounceInstrument());
+        notePlayer.playNote(pitch, velocity, duration);
     }
 
     /**
@@ -79,6 +94,23 @@ public class BounceNoteEffect implements BallEffect {
         return Math.max(0, Math.min(87, pitch));
     }
 
+    // Radius-based pitch must see the size after growth and the max-size clamp
+    @Override
+    public List<Class<? extends BallEffect>> getDependencies() {
+        return Arrays.asList(BounceGrowthEffect.class, MaxSizeStopEffect.class);
+    }
+
+    /**
+     * Send notes somewhere else, e.g. to an offline renderer
+     */
+    public void setNotePlayer(NotePlayer notePlayer) {
+        this.notePlayer = notePlayer;
+    }
+
+    public NotePlayer getNotePlayer() {
+        return notePlayer;
+    }
+
     public void setMaxBallRadius(float maxRadius) {
         this.maxBallRadius = maxRadius;
     }
@@ -1,10 +1,10 @@
 package simulation.effects;
 
-import processing.core.PVector;
 import simulation.core.Ball;
+import simulation.core.BallWorld;
+import simulation.core.BounceEvent;
 
-public class BounceSpeedBoostEffect implements BallEffect {
-    private float lastYVelocity = 0;
+public class BounceSpeedBoostEffect implements BallEffect, BatchBounceEffect {
     private float boostFactor;
     private boolean enabled = true;
 
@@ -14,18 +14,38 @@ public class BounceSpeedBoostEffect implements BallEffect {
 
     @Override
     public void apply(Ball ball) {
-        float currentY = ball.getVelocity().y;
-        boolean isBouncing = (lastYVelocity > 0) && (currentY < 0);
-
-        if (isBouncing) {
-            PVector velocity = ball.getVelocity().copy();
-            if (velocity.mag() > 0) {
-                velocity.normalize().mult(ball.getVelocity().mag() * boostFactor);
-                ball.setVelocity(velocity);
-            }
+        if (ball.hasJustBounced()) {
+            boost(ball);
         }
+    }
+
+    @Override
+    public void onBounce(BounceEvent event) {
+        // Boosting ball-ball contacts would keep pumping energy into clusters
+        if (event.isWallBounce()) {
+            boost(event.getBall());
+        }
+    }
+
+    @Override
+    public void applyBatch(BallWorld world, int[] bouncedIndices, int count) {
+        float[] vx = world.getVelocityX();
+        float[] vy = world.getVelocityY();
+
+        for (int k = 0; k < count; k++) {
+            int i = bouncedIndices[k];
+            world.setVelocity(i, vx[i] * boostFactor, vy[i] * boostFactor);
+        }
+    }
+
+    @Override
+    public boolean isWallBouncesOnly() {
+        return true;
+    }
 
-        lastYVelocity = currentY;
+    private void boost(Ball ball) {
+        // Scaling both components keeps the direction, same as normalize().mult(mag * boost)
+        ball.setVelocity(ball.getVelocityX() * boostFactor, ball.getVelocityY() * boostFactor);
     }
 
     public void setBoostFactor(float boostFactor) {
@@ -0,0 +1,29 @@
+package simulation.effects;
+
+/**
+ * Typed reference to an effect registered with an {@link EffectSystem}.
+ *
+ * Keeping the handle avoids looking the effect up again, and toggling it
+ * through the handle keeps the system's active list in sync.
+ */
+public final class EffectHandle<T extends BallEffect> {
+    private final EffectSystem system;
+    private final T effect;
+
+    EffectHandle(EffectSystem system, T effect) {
+        this.system = system;
+        this.effect = effect;
+    }
+
+    public T get() {
+        return effect;
+    }
+
+    public boolean isEnabled() {
+        return effect.isEnabled();
+    }
+
+    public void setEnabled(boolean enabled) {
+        system.setEnabled(effect, enabled);
+    }
+}
@@ -0,0 +1,15 @@
+package simulation.effects;
+
+/**
+ * Points in a tick at which the effect system runs effects, in execution order
+ */
+public enum EffectPhase {
+    /** Per ball, before the physics step */
+    PRE_PHYSICS,
+    /** Once per bounce event published during the physics step */
+    ON_BOUNCE,
+    /** Per ball, after the physics step and bounce dispatch */
+    POST_PHYSICS,
+    /** Once per rendered frame, beneath the balls */
+    RENDER
+}
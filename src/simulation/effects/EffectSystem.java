@@ -1,36 +1,303 @@
 package simulation.effects;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import processing.core.PGraphics;
 import simulation.core.Ball;
+import simulation.core.BallWorld;
+import simulation.core.BounceEventQueue;
+import simulation.core.BounceListener;
 
+/**
+ * Registry and dispatcher for ball effects.
+ *
+ * Each effect declares the {@link EffectPhase} it runs in and the effect
+ * types it must run after. Whenever the registry changes, the declarations
+ * are resolved once into a flat execution plan per phase; ties keep
+ * registration order. Enabled effects from the plan are copied into flat
+ * active arrays and disabled ones are parked in an inactive list, so the
+ * per-tick loops neither sort nor check isEnabled. Enable or disable
+ * effects through {@link #setEnabled} or their {@link EffectHandle} so the
+ * arrays are updated.
+ *
+ * Per-ball phases run effect by effect across the whole world, which keeps
+ * each effect's loop tight and preserves the plan order for every ball.
+ * A {@link WorldEffect} gets the whole world in one call instead.
+ * On-bounce effects run the same way: a {@link BatchBounceEffect} gets the
+ * tick's bounced ball indices in one call, other listeners get one event
+ * per bounced ball.
+ * Effects are indexed by their class and every effect supertype, so
+ * {@link #getEffect} is a single map lookup.
+ */
 public class EffectSystem {
+    private static final BallEffect[] NO_EFFECTS = new BallEffect[0];
+    private static final BounceListener[] NO_LISTENERS = new BounceListener[0];
+    private static final RenderEffect[] NO_RENDER_EFFECTS = new RenderEffect[0];
+
     private final List<BallEffect> effects = new ArrayList<>();
+    private final Map<Class<?>, BallEffect> byType = new HashMap<>();
+
+    // Resolved execution order per phase, including disabled effects
+    private final Map<EffectPhase, List<BallEffect>> plan = new EnumMap<>(EffectPhase.class);
+
+    private BallEffect[] activePrePhysics = NO_EFFECTS;
+    private BounceListener[] activeOnBounce = NO_LISTENERS;
+    private BallEffect[] activePostPhysics = NO_EFFECTS;
+    private RenderEffect[] activeRender = NO_RENDER_EFFECTS;
+    private final List<BallEffect> inactiveEffects = new ArrayList<>();
+
+    public EffectSystem() {
+        for (EffectPhase phase : EffectPhase.values()) {
+            plan.put(phase, Collections.emptyList());
+        }
+    }
+
+    /**
+     * Register an effect and re-resolve the execution plan
+     * @throws IllegalArgumentException if an on-bounce effect isn't a BounceListener
+     *         or a render-phase effect isn't a RenderEffect
+     * @throws IllegalStateException if the effect's dependencies form a cycle
+     */
+    public <T extends BallEffect> EffectHandle<T> registerEffect(T effect) {
+        if (effect.getPhase() == EffectPhase.ON_BOUNCE && !(effect instanceof BounceListener)) {
+            throw new IllegalArgumentException(effect.getClass().getSimpleName()
+                    + " runs on bounce but does not implement BounceListener");
+        }
+        if (effect.getPhase() == EffectPhase.RENDER && !(effect instanceof RenderEffect)) {
+            throw new IllegalArgumentException(effect.getClass().getSimpleName()
+                    + " runs at render time but does not implement RenderEffect");
+        }
 
-    public void registerEffect(BallEffect effect) {
         effects.add(effect);
+        try {
+            resolvePlan();
+        } catch (IllegalStateException e) {
+            effects.remove(effects.size() - 1);
+            resolvePlan();
+            throw e;
+        }
+        indexTypes(effect);
+        return new EffectHandle<>(this, effect);
     }
 
     public void unregisterEffect(BallEffect effect) {
-        effects.remove(effect);
+        if (!effects.remove(effect)) return;
+
+        // Another effect of the same type may now be first in line
+        byType.clear();
+        for (BallEffect remaining : effects) {
+            indexTypes(remaining);
+        }
+        resolvePlan();
+    }
+
+    /**
+     * Enable or disable an effect and move it between the active and inactive lists
+     */
+    public void setEnabled(BallEffect effect, boolean enabled) {
+        effect.setEnabled(enabled);
+        rebuildActive();
+    }
+
+    /**
+     * Run the enabled pre-physics effects on every ball
+     */
+    public void applyPrePhysics(BallWorld world) {
+        applyToWorld(activePrePhysics, world);
+    }
+
+    /**
+     * Run the enabled post-physics effects on every ball
+     */
+    public void applyPostPhysics(BallWorld world) {
+        applyToWorld(activePostPhysics, world);
     }
 
+    /**
+     * Run the enabled post-physics effects on a single ball
+     */
     public void applyEffects(Ball ball) {
-        for (BallEffect effect : effects) {
-            if (effect.isEnabled()) {
-                effect.apply(ball);
+        BallEffect[] active = activePostPhysics;
+        for (int i = 0; i < active.length; i++) {
+            active[i].apply(ball);
+        }
+    }
+
+    /**
+     * Deliver the last tick's bounces to the enabled on-bounce effects, once
+     * per bounced ball however many contacts it made during the tick.
+     * Listeners get the event of each ball's first contact.
+     */
+    public void dispatchBounces(BallWorld world) {
+        BounceEventQueue queue = world.getBounceEvents();
+        int count = queue.getBouncedBallCount();
+        if (count == 0) return;
+
+        BounceListener[] active = activeOnBounce;
+        for (int i = 0; i < active.length; i++) {
+            BounceListener listener = active[i];
+            if (listener instanceof BatchBounceEffect) {
+                BatchBounceEffect batch = (BatchBounceEffect) listener;
+                if (batch.isWallBouncesOnly()) {
+                    batch.applyBatch(world, queue.getWallBallIndices(), queue.getWallBouncedBallCount());
+                } else {
+                    batch.applyBatch(world, queue.getBallIndices(), count);
+                }
+            } else {
+                int[] firstEvents = queue.getFirstEventIndices();
+                for (int b = 0; b < count; b++) {
+                    listener.onBounce(queue.get(firstEvents[b]));
+                }
             }
         }
     }
 
-    // Optional: retrieve specific effect by class type
-    @SuppressWarnings("unchecked")
+    /**
+     * Draw the enabled render effects
+     */
+    public void render(PGraphics graphics) {
+        RenderEffect[] active = activeRender;
+        for (int i = 0; i < active.length; i++) {
+            active[i].display(graphics);
+        }
+    }
+
+    /**
+     * Retrieve the first registered effect of the given type, or null
+     */
     public <T extends BallEffect> T getEffect(Class<T> effectClass) {
+        return effectClass.cast(byType.get(effectClass));
+    }
+
+    /**
+     * Resolved execution order for a phase, including disabled effects
+     */
+    public List<BallEffect> getExecutionPlan(EffectPhase phase) {
+        return plan.get(phase);
+    }
+
+    public int getActiveEffectCount() {
+        return effects.size() - inactiveEffects.size();
+    }
+
+    public int getInactiveEffectCount() {
+        return inactiveEffects.size();
+    }
+
+    private static void applyToWorld(BallEffect[] active, BallWorld world) {
+        int count = world.size();
+        for (int i = 0; i < active.length; i++) {
+            BallEffect effect = active[i];
+            if (effect instanceof WorldEffect) {
+                ((WorldEffect) effect).applyToWorld(world);
+                continue;
+            }
+            for (int b = 0; b < count; b++) {
+                effect.apply(world.get(b));
+            }
+        }
+    }
+
+    private void resolvePlan() {
+        for (EffectPhase phase : EffectPhase.values()) {
+            List<BallEffect> members = new ArrayList<>();
+            for (BallEffect effect : effects) {
+                boolean renders = phase == EffectPhase.RENDER && effect instanceof RenderEffect;
+                if (effect.getPhase() == phase || renders) {
+                    members.add(effect);
+                }
+            }
+            plan.put(phase, Collections.unmodifiableList(sortByDependencies(members, phase)));
+        }
+        rebuildActive();
+    }
+
+    /**
+     * Stable topological sort: among effects whose dependencies are satisfied,
+     * the earliest registered runs first
+     */
+    private static List<BallEffect> sortByDependencies(List<BallEffect> members, EffectPhase phase) {
+        int n = members.size();
+        boolean[][] before = new boolean[n][n]; // before[i][j]: i must run before j
+        int[] pending = new int[n];
+        for (int j = 0; j < n; j++) {
+            for (Class<? extends BallEffect> dependency : members.get(j).getDependencies()) {
+                for (int i = 0; i < n; i++) {
+                    if (i != j && !before[i][j] && dependency.isInstance(members.get(i))) {
+                        before[i][j] = true;
+                        pending[j]++;
+                    }
+                }
+            }
+        }
+
+        List<BallEffect> ordered = new ArrayList<>(n);
+        boolean[] placed = new boolean[n];
+        while (ordered.size() < n) {
+            int next = -1;
+            for (int j = 0; j < n; j++) {
+                if (!placed[j] && pending[j] == 0) {
+                    next = j;
+                    break;
+                }
+            }
+            if (next < 0) {
+                List<String> cycle = new ArrayList<>();
+                for (int j = 0; j < n; j++) {
+                    if (!placed[j]) cycle.add(members.get(j).getClass().getSimpleName());
+                }
+                throw new IllegalStateException("Effect dependency cycle in " + phase + ": " + cycle);
+            }
+
+            placed[next] = true;
+            ordered.add(members.get(next));
+            for (int j = 0; j < n; j++) {
+                if (before[next][j]) pending[j]--;
+            }
+        }
+        return ordered;
+    }
+
+    private void rebuildActive() {
+        activePrePhysics = enabled(EffectPhase.PRE_PHYSICS).toArray(NO_EFFECTS);
+        activeOnBounce = enabled(EffectPhase.ON_BOUNCE).toArray(NO_LISTENERS);
+        activePostPhysics = enabled(EffectPhase.POST_PHYSICS).toArray(NO_EFFECTS);
+        activeRender = enabled(EffectPhase.RENDER).toArray(NO_RENDER_EFFECTS);
+
+        inactiveEffects.clear();
         for (BallEffect effect : effects) {
-            if (effectClass.isInstance(effect)) {
-                return (T) effect;
+            if (!effect.isEnabled()) {
+                inactiveEffects.add(effect);
+            }
+        }
+    }
+
+    private List<BallEffect> enabled(EffectPhase phase) {
+        List<BallEffect> result = new ArrayList<>();
+        for (BallEffect effect : plan.get(phase)) {
+            if (effect.isEnabled()) {
+                result.add(effect);
             }
         }
-        return null;
+        return result;
+    }
+
+    private void indexTypes(BallEffect effect) {
+        for (Class<?> type = effect.getClass(); type != null; type = type.getSuperclass()) {
+            indexType(type, effect);
+        }
+    }
+
+    private void indexType(Class<?> type, BallEffect effect) {
+        if (!BallEffect.class.isAssignableFrom(type)) return;
+
+        byType.putIfAbsent(type, effect);
+        for (Class<?> implemented : type.getInterfaces()) {
+            indexType(implemented, effect);
+        }
     }
-}
\ No newline at end of file
+}
@@ -1,6 +1,8 @@
 package simulation.effects;
 
 import simulation.core.Ball;
+import simulation.logging.EventLog;
+import simulation.logging.LogLevel;
 
 public class MaxSizeChecker {
     private float wallRadius;
@@ -13,15 +15,23 @@ public class MaxSizeChecker {
     }
 
     public boolean canGrow(Ball ball, float effectiveRadius, float growAmount) {
+        return canGrow(effectiveRadius, growAmount);
+    }
+
+    /**
+     * Same check without a Ball view, for batch loops over a BallWorld
+     */
+    public boolean canGrow(float effectiveRadius, float growAmount) {
         if (!enforceWallBoundaryLimit) return true;
 
         float futureEffectiveRadius = effectiveRadius + growAmount;
         float wallInner = wallRadius - wallThickness / 2f;
         boolean allowed = futureEffectiveRadius < wallInner;
 
-        System.out.printf("🧪 GROWTH CHECK → current=%.2f, future=%.2f, wallInner=%.2f → %s\n",
-                effectiveRadius, futureEffectiveRadius, wallInner,
-                allowed ? "✅ ALLOWED" : "❌ BLOCKED");
+        EventLog.log(LogLevel.TRACE, allowed
+                        ? "🧪 GROWTH CHECK → current=%.2f, future=%.2f, wallInner=%.2f → ✅ ALLOWED"
+                        : "🧪 GROWTH CHECK → current=%.2f, future=%.2f, wallInner=%.2f → ❌ BLOCKED",
+                effectiveRadius, futureEffectiveRadius, wallInner);
 
         return allowed;
     }
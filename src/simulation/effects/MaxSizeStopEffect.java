@@ -1,9 +1,15 @@
 package simulation.effects;
 
+import java.util.Collections;
+import java.util.List;
 import processing.core.PVector;
 import simulation.core.Ball;
+import simulation.core.BallWorld;
+import simulation.core.BounceEvent;
+import simulation.logging.EventLog;
+import simulation.logging.LogLevel;
 
-public class MaxSizeStopEffect implements BallEffect {
+public class MaxSizeStopEffect implements BallEffect, BatchBounceEffect {
     private final PVector wallCenter;
     private final MaxSizeChecker sizeChecker;
     private float growthAmount;
@@ -30,14 +36,49 @@ public class MaxSizeStopEffect implements BallEffect {
 
     @Override
     public void apply(Ball ball) {
-        if (!ball.hasJustBounced()) return;
+        if (ball.hasJustBounced()) {
+            checkSize(ball);
+        }
+    }
+
+    @Override
+    public void onBounce(BounceEvent event) {
+        if (!event.getBall().isLocked()) {
+            checkSize(event.getBall());
+        }
+    }
+
+    @Override
+    public void applyBatch(BallWorld world, int[] bouncedIndices, int count) {
+        float[] radius = world.getRadius();
+        float[] stroke = world.getStrokeThickness();
+        boolean[] locked = world.getLocked();
+        float wallInner = sizeChecker.getWallRadius() - sizeChecker.getWallThickness() / 2f;
+
+        for (int k = 0; k < count; k++) {
+            int i = bouncedIndices[k];
+            if (locked[i] || radius[i] + stroke[i] / 2.0f + growthAmount < wallInner) continue;
 
+            if (shouldStop) {
+                // Locking is rare, so it goes through the regular path
+                checkSize(world.get(i));
+            } else {
+                EventLog.log(LogLevel.DEBUG, "❌ Max size reached - ball at limits");
+                if (shouldShrink && radius[i] - shrinkRate > 1.0f) {
+                    radius[i] -= shrinkRate;
+                    EventLog.log(LogLevel.DEBUG, "📉 Ball shrinking. New radius = %.2f", radius[i]);
+                }
+            }
+        }
+    }
+
+    private void checkSize(Ball ball) {
         float effectiveRadius = ball.getEffectiveRadius();
         float wallInner = sizeChecker.getWallRadius() - sizeChecker.getWallThickness() / 2f;
 
         // Check if we'll exceed the wall boundary after growth
         if (effectiveRadius + growthAmount >= wallInner) {
-            System.out.println("❌ Max size reached - ball at limits");
+            EventLog.log(LogLevel.DEBUG, "❌ Max size reached - ball at limits");
 
             if (shouldStop) {
                 // Center and lock the ball at max allowed size
@@ -46,7 +87,7 @@ public class MaxSizeStopEffect implements BallEffect {
                 ball.setRadius(adjustedRadius);
                 ball.lockMotion();
 
-                System.out.printf("🔒 Ball locked in center. Final radius = %.2f, Effective = %.2f, Target = %.2f\n",
+                EventLog.log(LogLevel.INFO, "🔒 Ball locked in center. Final radius = %.2f, Effective = %.2f, Target = %.2f",
                         ball.getRadius(), ball.getEffectiveRadius(), wallInner);
             } else if (shouldShrink) {
                 // Shrink the ball instead of locking
@@ -54,12 +95,18 @@ public class MaxSizeStopEffect implements BallEffect {
                 // Don't let it shrink to zero or negative
                 if (newRadius > 1.0f) {
                     ball.setRadius(newRadius);
-                    System.out.printf("📉 Ball shrinking. New radius = %.2f\n", newRadius);
+                    EventLog.log(LogLevel.DEBUG, "📉 Ball shrinking. New radius = %.2f", newRadius);
                 }
             }
         }
     }
 
+    // Clamp the radius only after this bounce's growth has been applied
+    @Override
+    public List<Class<? extends BallEffect>> getDependencies() {
+        return Collections.singletonList(BounceGrowthEffect.class);
+    }
+
     public void setShouldStop(boolean shouldStop) {
         this.shouldStop = shouldStop;
     }
@@ -0,0 +1,10 @@
+package simulation.effects;
+
+import processing.core.PGraphics;
+
+/**
+ * An effect that also draws during the {@link EffectPhase#RENDER} phase
+ */
+public interface RenderEffect extends BallEffect {
+    void display(PGraphics graphics);
+}
@@ -0,0 +1,14 @@
+package simulation.effects;
+
+import simulation.core.BallWorld;
+
+/**
+ * A per-tick effect that processes the whole world in one call.
+ *
+ * {@link EffectSystem} prefers this over one {@link BallEffect#apply} call
+ * per ball, so the effect can keep state that advances once per tick no
+ * matter how many balls there are.
+ */
+public interface WorldEffect extends BallEffect {
+    void applyToWorld(BallWorld world);
+}
@@ -5,6 +5,7 @@ import processing.core.PApplet;
 import processing.core.PVector;
 import simulation.config.SettingsManager;
 import simulation.core.Ball;
+import simulation.core.BallWorld;
 import simulation.core.SimulationApp;
 
 /**
@@ -27,9 +28,10 @@ public class BallSettingsPanel extends SettingsPanel {
                              int sidebarWidth, int margin) {
         super(applet, cp5, settings, simulationApp, parentTab, sidebarWidth, margin);
 
-        // Create a preview ball for the panel
-        previewBall = new Ball(new PVector(sidebarWidth + margin + 300, 200),
-                settings.getBallRadius(), settings.getBallMass());
+        // Create a preview ball for the panel, in a world of its own so it never collides
+        BallWorld previewWorld = new BallWorld(1);
+        previewBall = previewWorld.get(previewWorld.add(sidebarWidth + margin + 300, 200,
+                settings.getBallRadius(), settings.getBallMass()));
         previewBall.setStrokeThickness(settings.getBallStroke());
         previewBall.setColor(settings.getBallColor());
     }
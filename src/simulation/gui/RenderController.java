@@ -3,9 +3,16 @@ package simulation.gui;
 import controlP5.*;
 import processing.core.PApplet;
 import processing.core.PGraphics;
+import simulation.audio.OfflineNoteRenderer;
+import simulation.core.OfflineRenderJob;
 import simulation.core.SimulationApp;
+import simulation.recording.AsyncPngFrameWriter;
+import simulation.recording.EncoderProcessStream;
+import simulation.recording.FrameSink;
+import simulation.recording.Y4mFrameWriter;
 
 import java.io.File;
+import java.io.IOException;
 import java.text.SimpleDateFormat;
 import java.util.Date;
 
@@ -26,6 +33,12 @@ public class RenderController {
     private boolean recordingFrames = false;
     private int recordingCounter = 0;
     private String exportFolderPath;
+    private FrameSink frameWriter;
+    private boolean streamToEncoder = false;
+    private boolean rawVideo = false;
+    private boolean offlineRendering = false;
+    private OfflineNoteRenderer offlineAudio;
+    private int exportResolution = 0; // Index into EXPORT_WIDTHS/EXPORT_HEIGHTS
     private int renderScale = 1;
     private int renderWidth;
     private int renderHeight;
@@ -40,6 +53,10 @@ public class RenderController {
     private static final int CONTROL_HEIGHT = 24;
     private static final int PANEL_WIDTH = 300;
 
+    // Export resolutions offered by the dropdown; 0 means the window size times the render scale
+    private static final int[] EXPORT_WIDTHS = {0, 1280, 1920, 2560};
+    private static final int[] EXPORT_HEIGHTS = {0, 720, 1080, 1440};
+
     /**
      * Create a new render controller
      * @param applet The PApplet instance
@@ -156,6 +173,13 @@ public class RenderController {
                 .setGroup(frameExportGroup)
                 .onPress(event -> toggleRecording());
 
+        // Deterministic render at the export resolution, as fast as the machine allows
+        cp5.addButton("renderOfflineCtrl")
+                .setPosition(margin + 210, 160)
+                .setSize(80, 40)
+                .setLabel("Render Offline")
+                .setGroup(frameExportGroup)
+                .onPress(event -> toggleOfflineRender());
 
         // Export resolution dropdown
         DropdownList resolutionDropdown = cp5.addDropdownList("exportResolution")
@@ -164,7 +188,8 @@ public class RenderController {
                 .setBarHeight(CONTROL_HEIGHT)
                 .setItemHeight(20)
                 .setLabel("Export Resolution")
-                .setGroup(frameExportGroup);
+                .setGroup(frameExportGroup)
+                .onChange(event -> exportResolution = (int) event.getController().getValue());
 
         resolutionDropdown.addItem("Same as Window", 0);
         resolutionDropdown.addItem("720p (1280x720)", 1);
@@ -180,6 +205,36 @@ public class RenderController {
                 .setGroup(frameExportGroup)
                 .setValue(true);
 
+        // Stream raw frames into ffmpeg instead of writing PNGs
+        cp5.addToggle("streamToEncoder")
+                .setPosition(margin + 120, 120)
+                .setSize(50, 20)
+                .setLabel("Stream to ffmpeg")
+                .setGroup(frameExportGroup)
+                .setValue(streamToEncoder)
+                .onChange(event -> {
+                    Controller c = (Controller) event.getController();
+                    streamToEncoder = c.getValue() > 0.5f;
+                    if (streamToEncoder && rawVideo) {
+                        cp5.getController("rawVideo").setValue(0);
+                    }
+                });
+
+        // Write one uncompressed .y4m file instead of PNGs, without needing ffmpeg
+        cp5.addToggle("rawVideo")
+                .setPosition(margin + 220, 120)
+                .setSize(50, 20)
+                .setLabel("Raw Y4M")
+                .setGroup(frameExportGroup)
+                .setValue(rawVideo)
+                .onChange(event -> {
+                    Controller c = (Controller) event.getController();
+                    rawVideo = c.getValue() > 0.5f;
+                    if (rawVideo && streamToEncoder) {
+                        cp5.getController("streamToEncoder").setValue(0);
+                    }
+                });
+
     }
 
     private void createRenderBuffer() {
@@ -221,7 +276,105 @@ public class RenderController {
      * Start recording frames
      */
     private void startRecording() {
-        // Create a timestamped folder for this recording
+        if (offlineRendering) return;
+
+        createExportFolder();
+        recordingCounter = 0;
+        recordingFrames = true;
+
+        // Update button label
+        Button recordButton = (Button) cp5.getController("startRecordingCtrl");
+        recordButton.setLabel("Stop Recording");
+        recordButton.setColorBackground(COLOR_RECORD);
+
+        // Force high quality mode when recording
+        cp5.getController("highQualityMode").setValue(1);
+        highQualityMode = true;
+        createRenderBuffer();
+        frameWriter = createFrameWriter(renderBuffer.pixelWidth, renderBuffer.pixelHeight);
+        saveRecordingInfo(renderWidth, renderHeight, false);
+
+        // Reset the simulation for clean recording
+        simulationApp.resetSimulation();
+    }
+
+    /**
+     * Start or cancel an offline render of the recording duration
+     */
+    private void toggleOfflineRender() {
+        if (offlineRendering) {
+            // update() finishes the job once the simulation has let go of it
+            simulationApp.cancelOfflineRender();
+            return;
+        }
+        if (recordingFrames) return;
+
+        int width = EXPORT_WIDTHS[exportResolution];
+        int height = EXPORT_HEIGHTS[exportResolution];
+        if (width == 0) {
+            width = applet.width * renderScale;
+            height = applet.height * renderScale;
+        }
+
+        createExportFolder();
+        recordingCounter = 0;
+        frameWriter = createFrameWriter(width, height);
+        saveRecordingInfo(width, height, true);
+
+        boolean includeAudio = cp5.getController("includeAudio").getValue() > 0.5f;
+        offlineAudio = includeAudio ? new OfflineNoteRenderer() : null;
+
+        if (!simulationApp.startOfflineRender(frameWriter, width, height, framesPerSecond,
+                framesPerSecond * recordingDuration, offlineAudio)) {
+            System.err.println("Could not start offline render while recording");
+            frameWriter.shutdown();
+            return;
+        }
+        offlineRendering = true;
+
+        Button renderButton = (Button) cp5.getController("renderOfflineCtrl");
+        renderButton.setLabel("Cancel");
+        renderButton.setColorBackground(COLOR_RECORD);
+    }
+
+    /**
+     * Flush the offline render's frames and write the conversion script
+     */
+    private void finishOfflineRender() {
+        offlineRendering = false;
+        recordingCounter = frameWriter.getAcceptedFrames();
+
+        Button renderButton = (Button) cp5.getController("renderOfflineCtrl");
+        renderButton.setLabel("Render Offline");
+        renderButton.setColorBackground(COLOR_HEADER);
+
+        // Remaining frames finish encoding in the background
+        frameWriter.shutdown();
+        if (offlineAudio != null) {
+            writeOfflineAudio();
+        }
+        createFFmpegScript();
+    }
+
+    /**
+     * Write the offline render's bounce notes to audio.wav, exactly as long as the frames
+     */
+    private void writeOfflineAudio() {
+        File audioFile = new File(exportFolderPath, "audio.wav");
+        long samples = offlineAudio.samplePosition(recordingCounter, framesPerSecond);
+        try {
+            offlineAudio.writeWav(audioFile, samples);
+            System.out.println("Audio written: " + audioFile + " (" + offlineAudio.getNoteCount() + " notes)");
+        } catch (IOException e) {
+            System.err.println("Error writing audio: " + e.getMessage());
+        }
+        offlineAudio = null;
+    }
+
+    /**
+     * Create a timestamped folder with a frames subfolder for the next export
+     */
+    private void createExportFolder() {
         SimpleDateFormat dateFormat = new SimpleDateFormat("yyyyMMdd_HHmmss");
         String timestamp = dateFormat.format(new Date());
         exportFolderPath = applet.sketchPath("export/recording_" + timestamp);
@@ -236,32 +389,44 @@ public class RenderController {
         if (!framesFolder.exists()) {
             framesFolder.mkdir();
         }
+    }
 
-        recordingCounter = 0;
-        recordingFrames = true;
-
-        // Update button label
-        Button recordButton = (Button) cp5.getController("startRecordingCtrl");
-        recordButton.setLabel("Stop Recording");
-        recordButton.setColorBackground(COLOR_RECORD);
-
-        // Force high quality mode when recording
-        cp5.getController("highQualityMode").setValue(1);
-        highQualityMode = true;
-        createRenderBuffer();
-
-        // Save recording settings to a properties file
+    /**
+     * Save the export settings to a properties file
+     */
+    private void saveRecordingInfo(int width, int height, boolean offline) {
         String[] settings = {
                 "fps=" + framesPerSecond,
                 "duration=" + recordingDuration,
-                "width=" + renderWidth,
-                "height=" + renderHeight,
-                "includeAudio=" + cp5.getController("includeAudio").getValue()
+                "width=" + width,
+                "height=" + height,
+                "offline=" + offline,
+                "includeAudio=" + cp5.getController("includeAudio").getValue(),
+                "streamed=" + (frameWriter instanceof EncoderProcessStream),
+                "rawVideo=" + (frameWriter instanceof Y4mFrameWriter)
         };
         applet.saveStrings(exportFolderPath + "/recording_info.txt", settings);
+    }
 
-        // Reset the simulation for clean recording
-        simulationApp.resetSimulation();
+    /**
+     * Stream to ffmpeg or write a raw .y4m when requested and available,
+     * otherwise write a PNG sequence
+     */
+    private FrameSink createFrameWriter(int width, int height) {
+        if (streamToEncoder) {
+            try {
+                return EncoderProcessStream.startFfmpeg(exportFolderPath, width, height, framesPerSecond);
+            } catch (Exception e) {
+                System.err.println("Could not start ffmpeg, recording PNG frames instead: " + e.getMessage());
+            }
+        } else if (rawVideo) {
+            try {
+                return Y4mFrameWriter.create(exportFolderPath, framesPerSecond);
+            } catch (Exception e) {
+                System.err.println("Could not open raw video file, recording PNG frames instead: " + e.getMessage());
+            }
+        }
+        return AsyncPngFrameWriter.createDefault(exportFolderPath + "/frames/frame_%05d.png");
     }
 
     /**
@@ -270,6 +435,9 @@ public class RenderController {
     private void stopRecording() {
         recordingFrames = false;
 
+        // Remaining frames finish encoding in the background
+        frameWriter.shutdown();
+
         // Update button label
         Button recordButton = (Button) cp5.getController("startRecordingCtrl");
         recordButton.setLabel("Start Recording");
@@ -284,14 +452,38 @@ public class RenderController {
      */
     private void createFFmpegScript() {
         boolean includeAudio = cp5.getController("includeAudio").getValue() > 0.5f;
+        boolean streamed = frameWriter instanceof EncoderProcessStream;
 
-        String ffmpegCommand = "ffmpeg -r " + framesPerSecond + " -i frames/frame_%05d.png -c:v libx264 -crf 18 -pix_fmt yuv420p";
-
-        if (includeAudio) {
-            ffmpegCommand += " -i audio.wav -c:a aac -b:a 192k";
+        if (streamed && !includeAudio) {
+            // The encoder already wrote the finished video
+            System.out.println("Recording complete! " + recordingCounter + " frames streamed to "
+                    + exportFolderPath + "/simulation_video.mp4 (" + frameWriter.getDroppedFrames() + " dropped)");
+            return;
         }
 
-        ffmpegCommand += " simulation_video.mp4";
+        String videoName = streamed ? "simulation_video_audio.mp4" : "simulation_video.mp4";
+        String ffmpegCommand;
+        if (streamed) {
+            // Only the audio track still needs to be added
+            ffmpegCommand = "ffmpeg -i simulation_video.mp4 -i audio.wav -c:v copy -c:a aac -b:a 192k " + videoName;
+        } else if (frameWriter instanceof Y4mFrameWriter) {
+            // Frame rate and size come from the .y4m header
+            ffmpegCommand = "ffmpeg -i simulation_video.y4m -c:v libx264 -crf 18 -pix_fmt yuv420p";
+
+            if (includeAudio) {
+                ffmpegCommand += " -i audio.wav -c:a aac -b:a 192k";
+            }
+
+            ffmpegCommand += " " + videoName;
+        } else {
+            ffmpegCommand = "ffmpeg -r " + framesPerSecond + " -i frames/frame_%05d.png -c:v libx264 -crf 18 -pix_fmt yuv420p";
+
+            if (includeAudio) {
+                ffmpegCommand += " -i audio.wav -c:a aac -b:a 192k";
+            }
+
+            ffmpegCommand += " " + videoName;
+        }
 
         // Create a script file appropriate for the OS
         String[] scriptLines;
@@ -302,7 +494,7 @@ public class RenderController {
                     "@echo off",
                     "echo Converting frames to video...",
                     ffmpegCommand,
-                    "echo Video created: simulation_video.mp4",
+                    "echo Video created: " + videoName,
                     "pause"
             };
             scriptName = "create_video.bat";
@@ -311,7 +503,7 @@ public class RenderController {
                     "#!/bin/bash",
                     "echo Converting frames to video...",
                     ffmpegCommand,
-                    "echo Video created: simulation_video.mp4"
+                    "echo Video created: " + videoName
             };
             scriptName = "create_video.sh";
 
@@ -328,7 +520,9 @@ public class RenderController {
         applet.saveStrings(exportFolderPath + "/" + scriptName, scriptLines);
 
         // Show a message to the user
-        System.out.println("Recording complete! " + recordingCounter + " frames saved to " + exportFolderPath);
+        System.out.println("Recording complete! " + recordingCounter + " frames saved to " + exportFolderPath
+                + " (" + frameWriter.getQueueDepth() + " still encoding, "
+                + frameWriter.getDroppedFrames() + " dropped)");
         System.out.println("Use the " + scriptName + " script in that folder to create a video.");
     }
 
@@ -361,12 +555,31 @@ public class RenderController {
             float progress = (float) recordingCounter / totalFrames;
             int secondsElapsed = recordingCounter / framesPerSecond;
 
-            String recordingStatus = String.format("Recording: %d/%d frames (%.1f%%) - %ds/%ds",
-                    recordingCounter, totalFrames, progress * 100, secondsElapsed, recordingDuration);
+            String recordingStatus = String.format("Recording: %d/%d frames (%.1f%%) - %ds/%ds - queue %d, dropped %d",
+                    recordingCounter, totalFrames, progress * 100, secondsElapsed, recordingDuration,
+                    frameWriter.getQueueDepth(), frameWriter.getDroppedFrames());
 
             applet.text(recordingStatus, applet.width - 40, 20);
         }
 
+        OfflineRenderJob offlineRender = simulationApp.getOfflineRender();
+        if (offlineRender != null) {
+            applet.fill(COLOR_RECORD);
+            applet.noStroke();
+            applet.ellipse(applet.width - 20, 20, 10, 10);
+
+            applet.fill(COLOR_TEXT);
+            applet.textAlign(PApplet.RIGHT, PApplet.CENTER);
+            applet.textSize(14);
+
+            int totalFrames = offlineRender.getTotalFrames();
+            float progress = (float) offlineRender.getRenderedFrames() / totalFrames;
+            String renderStatus = String.format("Rendering offline: %d/%d frames (%.1f%%) - queue %d",
+                    offlineRender.getRenderedFrames(), totalFrames, progress * 100, frameWriter.getQueueDepth());
+
+            applet.text(renderStatus, applet.width - 40, 20);
+        }
+
         // Draw rendering info
         if (highQualityMode) {
             applet.fill(COLOR_TEXT);
@@ -383,8 +596,9 @@ public class RenderController {
             // Draw performance stats
             applet.textSize(12);
             String performanceInfo = String.format(
-                    "Frame Time: %.1f ms",
-                    1000.0f / applet.frameRate
+                    "Frame Time: %.1f ms - Physics Sub-steps: %d",
+                    1000.0f / applet.frameRate,
+                    simulationApp.getPhysicsEngine().getLastSubStepCount()
             );
 
             applet.text(performanceInfo, sidebarWidth + PANEL_WIDTH + margin * 2, 100);
@@ -395,6 +609,10 @@ public class RenderController {
      * Update the render controller state
      */
     public void update() {
+        if (offlineRendering && !simulationApp.isOfflineRendering()) {
+            finishOfflineRender();
+        }
+
         if (recordingFrames) {
             recordFrame();
 
@@ -443,11 +661,10 @@ public class RenderController {
     private void recordFrame() {
         if (!recordingFrames) return;
 
-        // Save the current frame
-        String frameFilename = String.format("%s/frames/frame_%05d.png", exportFolderPath, recordingCounter);
-        renderBuffer.save(frameFilename);
-
-        recordingCounter++;
+        // Hand the frame to the encoder pool; a dropped frame doesn't take a number
+        if (frameWriter.submit(renderBuffer)) {
+            recordingCounter++;
+        }
     }
 
     /**
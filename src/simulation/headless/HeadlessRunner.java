@@ -0,0 +1,81 @@
+package simulation.headless;
+
+import processing.data.JSONObject;
+import simulation.config.SettingsManager;
+import simulation.logging.EventLog;
+
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+
+/**
+ * Command line entry point for headless runs.
+ *
+ * Usage: {@code HeadlessRunner [ticks=N] [out=results.csv] [setting=value ...]}
+ * where each setting is a {@link SettingsManager} JSON key such as
+ * {@code gravity=0.5} or {@code shouldShrink=false}.
+ */
+public class HeadlessRunner {
+    private static final int DEFAULT_TICKS = 60 * 60; // one minute at 60 Hz
+
+    public static void main(String[] args) {
+        // Results may go to stdout, so keep log lines out of the CSV
+        EventLog.setOutput(System.err);
+
+        int ticks = DEFAULT_TICKS;
+        String outputPath = null;
+        SettingsManager settings = new SettingsManager();
+        JSONObject overrides = new JSONObject();
+
+        for (String arg : args) {
+            int split = arg.indexOf('=');
+            if (split <= 0) {
+                throw new IllegalArgumentException("Expected key=value but got: " + arg);
+            }
+            String key = arg.substring(0, split);
+            String value = arg.substring(split + 1);
+
+            if (key.equals("ticks")) {
+                ticks = Integer.parseInt(value);
+            } else if (key.equals("out")) {
+                outputPath = value;
+            } else {
+                setOverride(settings, overrides, key, value);
+            }
+        }
+        settings.fromJSON(overrides);
+
+        SimulationResult result = new HeadlessSimulation(settings).run(ticks);
+
+        if (outputPath == null) {
+            System.out.println(SimulationResult.CSV_HEADER);
+            System.out.println(result.toCsvRow());
+            return;
+        }
+
+        try (PrintWriter writer = new PrintWriter(new FileWriter(outputPath))) {
+            writer.println(SimulationResult.CSV_HEADER);
+            writer.println(result.toCsvRow());
+        } catch (IOException e) {
+            System.err.println("Error writing results: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Parse a single setting override into a JSON object that SettingsManager can load
+     */
+    static void setOverride(SettingsManager settings, JSONObject overrides, String key, String value) {
+        if (!settings.toJSON().hasKey(key)) {
+            throw new IllegalArgumentException("Unknown setting: " + key);
+        }
+
+        if (value.equalsIgnoreCase("true") || value.equalsIgnoreCase("false")) {
+            overrides.setBoolean(key, Boolean.parseBoolean(value));
+        } else if (value.contains(".")) {
+            overrides.setFloat(key, Float.parseFloat(value));
+        } else {
+            overrides.setInt(key, Integer.parseInt(value));
+        }
+    }
+}
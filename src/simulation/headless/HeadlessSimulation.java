@@ -0,0 +1,96 @@
+package simulation.headless;
+
+import processing.core.PVector;
+import simulation.config.SettingsManager;
+import simulation.core.*;
+import simulation.effects.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Runs the bounce simulation without a window or OpenGL context.
+ *
+ * Builds the same scene as {@link SimulationApp} (one ball inside a circular
+ * wall) from a {@link SettingsManager}, minus the effects that need a sketch
+ * or an audio device (traces and notes). Every instance owns its own world,
+ * engine and effects, so separate instances can run on separate threads.
+ */
+public class HeadlessSimulation {
+    // Scene layout matching SimulationApp's default window
+    private static final float SCENE_WIDTH = 1200;
+    private static final float SCENE_HEIGHT = 800;
+    private static final float WALL_RADIUS = 350;
+    private static final float WALL_THICKNESS = 10;
+    private static final float WALL_ELASTICITY = 1.0f;
+
+    private final BallWorld world = new BallWorld(1);
+    private final List<Collidable> collidables = new ArrayList<>();
+    private final PhysicsEngine physicsEngine;
+    private final EffectSystem effectSystem = new EffectSystem();
+    private final Ball ball;
+
+    private int tick = 0;
+    private int bounceCount = 0;
+    private int lockTick = -1;
+
+    public HeadlessSimulation(SettingsManager settings) {
+        PVector wallCenter = new PVector(SCENE_WIDTH / 2f, SCENE_HEIGHT / 2f);
+
+        int index = world.add(wallCenter.x + 100, wallCenter.y - WALL_RADIUS / 2,
+                settings.getBallRadius(), settings.getBallMass());
+        ball = world.get(index);
+        ball.setStrokeThickness(settings.getBallStroke());
+        ball.setMaxSpeed(settings.getBallMaxSpeed());
+        ball.setColor(settings.getBallColor());
+
+        collidables.add(new CircularWall(wallCenter, WALL_RADIUS, WALL_THICKNESS, WALL_ELASTICITY));
+        physicsEngine = new PhysicsEngine(settings.getGravity());
+
+        MaxSizeChecker maxSizeChecker = new MaxSizeChecker(WALL_RADIUS, WALL_THICKNESS);
+        effectSystem.registerEffect(new BounceGrowthEffect(settings.getGrowthAmount(), maxSizeChecker));
+        effectSystem.registerEffect(new BounceSpeedBoostEffect(settings.getSpeedBoostFactor()));
+
+        MaxSizeStopEffect maxSizeStop = new MaxSizeStopEffect(wallCenter, maxSizeChecker,
+                settings.getGrowthAmount(), settings.getShouldStop(),
+                settings.getShouldShrink(), settings.getShrinkRate());
+        maxSizeStop.setEnforceWallBoundaryLimit(settings.isEnforceWallBoundaryLimit());
+        effectSystem.registerEffect(maxSizeStop);
+    }
+
+    /**
+     * Advance the simulation by one physics tick
+     */
+    public void step() {
+        effectSystem.applyPrePhysics(world);
+        physicsEngine.update(world, collidables);
+        effectSystem.dispatchBounces(world);
+        effectSystem.applyPostPhysics(world);
+
+        if (ball.hasJustBounced()) {
+            bounceCount++;
+        }
+        if (lockTick < 0 && ball.isLocked()) {
+            lockTick = tick;
+        }
+        tick++;
+    }
+
+    /**
+     * Run for the given number of ticks, stopping early once the ball locks
+     */
+    public SimulationResult run(int ticks) {
+        while (tick < ticks && lockTick < 0) {
+            step();
+        }
+        return getResult();
+    }
+
+    public SimulationResult getResult() {
+        return new SimulationResult(tick, bounceCount, ball.getRadius(), lockTick);
+    }
+
+    public BallWorld getWorld() {
+        return world;
+    }
+}
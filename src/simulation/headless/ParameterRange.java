@@ -0,0 +1,58 @@
+package simulation.headless;
+
+/**
+ * Inclusive range of values for one SettingsManager field in a sweep
+ */
+public class ParameterRange {
+    private final String key;
+    private final float[] values;
+
+    /**
+     * @param key SettingsManager JSON key, e.g. "gravity"
+     * @param start First value
+     * @param end Last value (inclusive)
+     * @param step Increment between values, must be positive
+     */
+    public ParameterRange(String key, float start, float end, float step) {
+        if (step <= 0) {
+            throw new IllegalArgumentException("Step must be positive for " + key);
+        }
+        if (end < start) {
+            throw new IllegalArgumentException("End must not be below start for " + key);
+        }
+
+        this.key = key;
+        // Round so that float error in (end - start) / step doesn't drop the last value
+        int count = (int) Math.floor((end - start) / step + 1e-4) + 1;
+        this.values = new float[count];
+        for (int i = 0; i < count; i++) {
+            values[i] = start + i * step;
+        }
+    }
+
+    /**
+     * Parse a "key=start:end:step" argument
+     */
+    public static ParameterRange parse(String key, String spec) {
+        String[] parts = spec.split(":");
+        if (parts.length != 3) {
+            throw new IllegalArgumentException("Expected start:end:step for " + key + " but got: " + spec);
+        }
+        return new ParameterRange(key,
+                Float.parseFloat(parts[0]),
+                Float.parseFloat(parts[1]),
+                Float.parseFloat(parts[2]));
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public int size() {
+        return values.length;
+    }
+
+    public float get(int i) {
+        return values[i];
+    }
+}
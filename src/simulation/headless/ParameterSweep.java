@@ -0,0 +1,144 @@
+package simulation.headless;
+
+import processing.data.JSONObject;
+import simulation.config.SettingsManager;
+
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Runs a headless simulation for every combination of parameter values.
+ *
+ * Combinations are fanned out over a ForkJoinPool. Each task decodes its own
+ * parameter values from the combination index and builds a private
+ * SettingsManager and {@link HeadlessSimulation}, so tasks share nothing but
+ * the read-only base settings.
+ */
+public class ParameterSweep {
+    private final JSONObject baseSettings;
+    private final List<ParameterRange> ranges = new ArrayList<>();
+    private final int ticks;
+
+    /**
+     * @param baseSettings Settings applied before each combination's values
+     * @param ticks Ticks to simulate per combination
+     */
+    public ParameterSweep(SettingsManager baseSettings, int ticks) {
+        // Snapshot so later GUI edits to the live settings can't leak into a running sweep
+        this.baseSettings = baseSettings.toJSON();
+        this.ticks = ticks;
+    }
+
+    public void addRange(ParameterRange range) {
+        if (!baseSettings.hasKey(range.getKey())) {
+            throw new IllegalArgumentException("Unknown setting: " + range.getKey());
+        }
+        if (!(baseSettings.get(range.getKey()) instanceof Number)) {
+            throw new IllegalArgumentException("Setting " + range.getKey()
+                    + " is not numeric and can't be swept over a range");
+        }
+        ranges.add(range);
+    }
+
+    /**
+     * Total number of combinations, i.e. the product of all range sizes
+     */
+    public int getCombinationCount() {
+        int total = 1;
+        for (ParameterRange range : ranges) {
+            total = Math.multiplyExact(total, range.size());
+        }
+        return total;
+    }
+
+    /**
+     * Run every combination on the given pool. Results are in combination order.
+     */
+    public List<SweepResult> run(ForkJoinPool pool) {
+        int total = getCombinationCount();
+        SweepResult[] results = pool.submit(() -> IntStream.range(0, total)
+                .parallel()
+                .mapToObj(this::runCombination)
+                .toArray(SweepResult[]::new)).join();
+        return List.of(results);
+    }
+
+    private SweepResult runCombination(int combination) {
+        float[] values = new float[ranges.size()];
+        JSONObject overrides = new JSONObject();
+
+        // Mixed-radix decode, last range varies fastest
+        int remaining = combination;
+        for (int r = ranges.size() - 1; r >= 0; r--) {
+            ParameterRange range = ranges.get(r);
+            values[r] = range.get(remaining % range.size());
+            remaining /= range.size();
+
+            // Keep the setting's own type, or fromJSON would truncate integer settings
+            if (isInteger(baseSettings.get(range.getKey()))) {
+                int value = Math.round(values[r]);
+                values[r] = value;
+                overrides.setInt(range.getKey(), value);
+            } else {
+                overrides.setFloat(range.getKey(), values[r]);
+            }
+        }
+
+        SettingsManager settings = new SettingsManager();
+        settings.fromJSON(baseSettings);
+        settings.fromJSON(overrides);
+
+        SimulationResult result = new HeadlessSimulation(settings).run(ticks);
+        return new SweepResult(values, result);
+    }
+
+    private static boolean isInteger(Object value) {
+        return value instanceof Integer || value instanceof Long;
+    }
+
+    /**
+     * Write results as CSV with one column per swept parameter followed by the run summary
+     */
+    public void writeCsv(List<SweepResult> results, PrintWriter writer) {
+        StringBuilder header = new StringBuilder();
+        for (ParameterRange range : ranges) {
+            header.append(range.getKey()).append(',');
+        }
+        header.append(SimulationResult.CSV_HEADER);
+        writer.println(header);
+
+        for (SweepResult row : results) {
+            StringBuilder line = new StringBuilder();
+            for (float value : row.getValues()) {
+                line.append(value).append(',');
+            }
+            line.append(row.getResult().toCsvRow());
+            writer.println(line);
+        }
+        writer.flush();
+    }
+
+    /**
+     * Parameter values for one combination and the run they produced
+     */
+    public static class SweepResult {
+        private final float[] values;
+        private final SimulationResult result;
+
+        SweepResult(float[] values, SimulationResult result) {
+            this.values = values;
+            this.result = result;
+        }
+
+        public float[] getValues() {
+            return values;
+        }
+
+        public SimulationResult getResult() {
+            return result;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package simulation.headless;
+
+/**
+ * Summary of a single headless simulation run
+ */
+public class SimulationResult {
+    public static final String CSV_HEADER = "ticks,bounceCount,finalRadius,lockTick";
+
+    private final int ticks;
+    private final int bounceCount;
+    private final float finalRadius;
+    private final int lockTick;
+
+    public SimulationResult(int ticks, int bounceCount, float finalRadius, int lockTick) {
+        this.ticks = ticks;
+        this.bounceCount = bounceCount;
+        this.finalRadius = finalRadius;
+        this.lockTick = lockTick;
+    }
+
+    public int getTicks() { return ticks; }
+    public int getBounceCount() { return bounceCount; }
+    public float getFinalRadius() { return finalRadius; }
+
+    /**
+     * Tick on which MaxSizeStopEffect locked the ball, or -1 if it never locked
+     */
+    public int getLockTick() { return lockTick; }
+
+    public boolean isLocked() { return lockTick >= 0; }
+
+    public String toCsvRow() {
+        return ticks + "," + bounceCount + "," + finalRadius + "," + lockTick;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ticks=%d bounces=%d finalRadius=%.2f lockTick=%d",
+                ticks, bounceCount, finalRadius, lockTick);
+    }
+}
@@ -0,0 +1,86 @@
+package simulation.headless;
+
+import processing.data.JSONObject;
+import simulation.config.SettingsManager;
+import simulation.logging.EventLog;
+
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Command line entry point for parameter sweeps.
+ *
+ * Usage: {@code SweepRunner [ticks=N] [threads=N] [out=sweep.csv] [key=start:end:step ...] [key=value ...]}
+ * Arguments with a start:end:step value are swept; plain values are fixed
+ * overrides applied to every run.
+ */
+public class SweepRunner {
+    private static final int DEFAULT_TICKS = 60 * 60;
+
+    public static void main(String[] args) {
+        // Results may go to stdout, so keep log lines out of the CSV
+        EventLog.setOutput(System.err);
+
+        int ticks = DEFAULT_TICKS;
+        int threads = Runtime.getRuntime().availableProcessors();
+        String outputPath = null;
+        SettingsManager base = new SettingsManager();
+        JSONObject overrides = new JSONObject();
+        List<String[]> rangeArgs = new ArrayList<>();
+
+        for (String arg : args) {
+            int split = arg.indexOf('=');
+            if (split <= 0) {
+                throw new IllegalArgumentException("Expected key=value but got: " + arg);
+            }
+            String key = arg.substring(0, split);
+            String value = arg.substring(split + 1);
+
+            if (key.equals("ticks")) {
+                ticks = Integer.parseInt(value);
+            } else if (key.equals("threads")) {
+                threads = Integer.parseInt(value);
+            } else if (key.equals("out")) {
+                outputPath = value;
+            } else if (value.contains(":")) {
+                rangeArgs.add(new String[]{key, value});
+            } else {
+                HeadlessRunner.setOverride(base, overrides, key, value);
+            }
+        }
+        base.fromJSON(overrides);
+
+        ParameterSweep sweep = new ParameterSweep(base, ticks);
+        for (String[] range : rangeArgs) {
+            sweep.addRange(ParameterRange.parse(range[0], range[1]));
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        long start = System.nanoTime();
+        List<ParameterSweep.SweepResult> results;
+        try {
+            results = sweep.run(pool);
+        } finally {
+            pool.shutdown();
+        }
+        float seconds = (System.nanoTime() - start) / 1_000_000_000f;
+        System.err.printf("Swept %d combinations on %d threads in %.2fs%n", results.size(), threads, seconds);
+
+        if (outputPath == null) {
+            sweep.writeCsv(results, new PrintWriter(new OutputStreamWriter(System.out)));
+            return;
+        }
+
+        try (PrintWriter writer = new PrintWriter(new FileWriter(outputPath))) {
+            sweep.writeCsv(results, writer);
+        } catch (IOException e) {
+            System.err.println("Error writing results: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+}
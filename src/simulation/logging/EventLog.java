@@ -0,0 +1,171 @@
+package simulation.logging;
+
+import java.io.PrintStream;
+
+/**
+ * Level-gated, asynchronous event log for hot simulation paths.
+ *
+ * Callers record a format string and up to three float arguments into a
+ * fixed in-memory ring; nothing is formatted or printed on the calling
+ * thread. A daemon writer thread drains the ring and prints the records.
+ * A record below the current level costs one volatile read. When the ring
+ * is full, new records are dropped and counted rather than blocking the
+ * simulation.
+ *
+ * The starting level comes from the {@code simulation.logLevel} system
+ * property and defaults to INFO.
+ */
+public final class EventLog {
+    private static final int CAPACITY = 4096;
+    private static final long FLUSH_INTERVAL_MS = 20;
+
+    private static volatile LogLevel level = parseLevel(System.getProperty("simulation.logLevel"));
+    private static volatile PrintStream out = System.out;
+
+    // Ring storage, guarded by LOCK
+    private static final Object LOCK = new Object();
+    private static final LogLevel[] levels = new LogLevel[CAPACITY];
+    private static final String[] formats = new String[CAPACITY];
+    private static final float[] args = new float[CAPACITY * 3];
+    private static final byte[] argCounts = new byte[CAPACITY];
+    private static int head = 0;
+    private static int size = 0;
+    private static long droppedRecords = 0;
+
+    private static Thread writer;
+
+    private EventLog() {
+    }
+
+    public static boolean isLoggable(LogLevel recordLevel) {
+        return recordLevel.compareTo(level) >= 0 && recordLevel != LogLevel.OFF;
+    }
+
+    public static void log(LogLevel recordLevel, String message) {
+        if (isLoggable(recordLevel)) append(recordLevel, message, 0, 0, 0, 0);
+    }
+
+    public static void log(LogLevel recordLevel, String format, float a) {
+        if (isLoggable(recordLevel)) append(recordLevel, format, 1, a, 0, 0);
+    }
+
+    public static void log(LogLevel recordLevel, String format, float a, float b) {
+        if (isLoggable(recordLevel)) append(recordLevel, format, 2, a, b, 0);
+    }
+
+    public static void log(LogLevel recordLevel, String format, float a, float b, float c) {
+        if (isLoggable(recordLevel)) append(recordLevel, format, 3, a, b, c);
+    }
+
+    public static LogLevel getLevel() {
+        return level;
+    }
+
+    public static void setLevel(LogLevel newLevel) {
+        level = newLevel;
+    }
+
+    /**
+     * Redirect output, e.g. to a file or System.err
+     */
+    public static void setOutput(PrintStream stream) {
+        out = stream;
+    }
+
+    /**
+     * Records dropped because the writer fell behind
+     */
+    public static long getDroppedRecords() {
+        synchronized (LOCK) {
+            return droppedRecords;
+        }
+    }
+
+    /**
+     * Print everything recorded so far on the calling thread
+     */
+    public static void flush() {
+        drain();
+    }
+
+    private static void append(LogLevel recordLevel, String format, int argCount, float a, float b, float c) {
+        synchronized (LOCK) {
+            if (size == CAPACITY) {
+                droppedRecords++;
+                return;
+            }
+            int slot = (head + size) % CAPACITY;
+            levels[slot] = recordLevel;
+            formats[slot] = format;
+            argCounts[slot] = (byte) argCount;
+            args[slot * 3] = a;
+            args[slot * 3 + 1] = b;
+            args[slot * 3 + 2] = c;
+            size++;
+
+            if (writer == null) {
+                startWriter();
+            }
+        }
+    }
+
+    private static void startWriter() {
+        writer = new Thread(() -> {
+            while (true) {
+                drain();
+                try {
+                    Thread.sleep(FLUSH_INTERVAL_MS);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }, "event-log-writer");
+        writer.setDaemon(true);
+        writer.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(EventLog::drain, "event-log-flush"));
+    }
+
+    // Formatting happens outside the lock so producers never wait on I/O
+    private static void drain() {
+        LogLevel recordLevel;
+        String format;
+        int argCount;
+        float a, b, c;
+        PrintStream stream = out;
+
+        while (true) {
+            synchronized (LOCK) {
+                if (size == 0) break;
+                recordLevel = levels[head];
+                format = formats[head];
+                argCount = argCounts[head];
+                a = args[head * 3];
+                b = args[head * 3 + 1];
+                c = args[head * 3 + 2];
+                formats[head] = null;
+                head = (head + 1) % CAPACITY;
+                size--;
+            }
+
+            String message;
+            switch (argCount) {
+                case 1: message = String.format(format, a); break;
+                case 2: message = String.format(format, a, b); break;
+                case 3: message = String.format(format, a, b, c); break;
+                default: message = format; break;
+            }
+            stream.println("[" + recordLevel + "] " + message);
+        }
+        stream.flush();
+    }
+
+    private static LogLevel parseLevel(String value) {
+        if (value == null) return LogLevel.INFO;
+        try {
+            return LogLevel.valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            System.err.println("Unknown log level " + value + ", using INFO");
+            return LogLevel.INFO;
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package simulation.logging;
+
+/**
+ * Severity of an {@link EventLog} record, from most to least verbose
+ */
+public enum LogLevel {
+    TRACE,
+    DEBUG,
+    INFO,
+    WARN,
+    OFF
+}
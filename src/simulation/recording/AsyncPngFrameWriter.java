@@ -0,0 +1,52 @@
+package simulation.recording;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.awt.image.DirectColorModel;
+import java.awt.image.Raster;
+import java.awt.image.WritableRaster;
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Writes recorded frames as numbered PNG files on a small pool of encoder threads
+ */
+public class AsyncPngFrameWriter extends PooledFrameWriter {
+    private static final DirectColorModel RGB_MODEL = new DirectColorModel(24, 0xff0000, 0x00ff00, 0x0000ff);
+    private static final int[] RGB_MASKS = {0xff0000, 0x00ff00, 0x0000ff};
+
+    private final String framePattern;
+
+    /**
+     * @param framePattern File name pattern taking the frame number, e.g. "frames/frame_%05d.png"
+     * @param encoderThreads Number of PNG encoder threads
+     * @param queueCapacity Frames that may wait for an encoder, beyond those being encoded
+     * @param maxWaitMillis How long submit() may block for a free buffer before dropping the frame
+     */
+    public AsyncPngFrameWriter(String framePattern, int encoderThreads, int queueCapacity, long maxWaitMillis) {
+        super(encoderThreads, queueCapacity, maxWaitMillis, "png-encoder");
+        this.framePattern = framePattern;
+    }
+
+    /**
+     * Writer sized to the machine: half the cores encode, with two frames of slack each
+     */
+    public static AsyncPngFrameWriter createDefault(String framePattern) {
+        int threads = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        return new AsyncPngFrameWriter(framePattern, threads, threads * 2, 100);
+    }
+
+    @Override
+    protected void writeFrame(int[] pixels, int width, int height, int frameNumber) throws IOException {
+        File file = new File(String.format(framePattern, frameNumber));
+
+        // Wrap the pooled array directly; alpha is ignored as frames are opaque
+        WritableRaster raster = Raster.createPackedRaster(
+                new DataBufferInt(pixels, width * height), width, height, width, RGB_MASKS, null);
+        BufferedImage image = new BufferedImage(RGB_MODEL, raster, false, null);
+        if (!ImageIO.write(image, "png", file)) {
+            throw new IOException("No PNG encoder available for " + file);
+        }
+    }
+}
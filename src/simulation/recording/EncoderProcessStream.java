@@ -0,0 +1,114 @@
+package simulation.recording;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Streams raw frames into a child encoder process over its stdin.
+ *
+ * Each frame is written as packed 8-bit ARGB, which is Processing's pixel
+ * layout in big-endian byte order, so there is no per-pixel conversion and
+ * no intermediate image files. A single writer thread keeps frames in
+ * order. The encoder's stdout and stderr go to a log file so a chatty
+ * encoder can't stall on a full pipe.
+ */
+public class EncoderProcessStream extends PooledFrameWriter {
+    private static final long EXIT_TIMEOUT_SECONDS = 60;
+
+    private final Process process;
+    private final OutputStream stdin;
+    private final String description;
+    private ByteBuffer frameBytes;
+    private int width = -1;
+    private int height = -1;
+
+    /**
+     * Start the encoder process
+     * @param command Encoder command line; it must read raw frames from stdin
+     * @param log File receiving the encoder's stdout and stderr
+     * @param queueCapacity Frames that may wait for the pipe, beyond the one being written
+     * @param maxWaitMillis How long submit() may block for a free buffer before dropping the frame
+     * @throws IOException If the process can't be started, e.g. the encoder isn't on the PATH
+     */
+    public EncoderProcessStream(List<String> command, File log, int queueCapacity, long maxWaitMillis)
+            throws IOException {
+        super(1, queueCapacity, maxWaitMillis, "encoder-stream");
+        this.description = String.join(" ", command);
+        this.process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(log)
+                .start();
+        this.stdin = process.getOutputStream();
+    }
+
+    /**
+     * ffmpeg command reading packed ARGB frames of the given size from stdin
+     * and encoding them to H.264
+     */
+    public static List<String> ffmpegCommand(int width, int height, float framesPerSecond, String outputFile) {
+        return Arrays.asList(
+                "ffmpeg", "-y", "-loglevel", "warning",
+                "-f", "rawvideo", "-pixel_format", "argb",
+                "-video_size", width + "x" + height,
+                "-framerate", String.valueOf(framesPerSecond),
+                "-i", "-",
+                "-c:v", "libx264", "-crf", "18", "-pix_fmt", "yuv420p",
+                outputFile);
+    }
+
+    /**
+     * Stream to ffmpeg, writing the video and an encoder log into the given folder
+     * @throws IOException If ffmpeg isn't on the PATH
+     */
+    public static EncoderProcessStream startFfmpeg(String folder, int width, int height, float framesPerSecond)
+            throws IOException {
+        List<String> command = ffmpegCommand(width, height, framesPerSecond, folder + "/simulation_video.mp4");
+        return new EncoderProcessStream(command, new File(folder, "encoder.log"), 4, 100);
+    }
+
+    @Override
+    protected void writeFrame(int[] pixels, int frameWidth, int frameHeight, int frameNumber) throws IOException {
+        if (width < 0) {
+            width = frameWidth;
+            height = frameHeight;
+            frameBytes = ByteBuffer.allocate(width * height * 4);
+        } else if (frameWidth != width || frameHeight != height) {
+            // Raw video has a fixed frame size
+            throw new IOException("Frame size changed from " + width + "x" + height
+                    + " to " + frameWidth + "x" + frameHeight);
+        }
+
+        frameBytes.clear();
+        frameBytes.asIntBuffer().put(pixels, 0, width * height);
+        stdin.write(frameBytes.array(), 0, width * height * 4);
+    }
+
+    /**
+     * Close stdin so the encoder sees end of input, then wait for it to exit
+     */
+    @Override
+    protected void finish() throws IOException {
+        stdin.close();
+        try {
+            if (!process.waitFor(EXIT_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                process.destroy();
+                throw new IOException("Encoder did not exit: " + description);
+            }
+            if (process.exitValue() != 0) {
+                throw new IOException("Encoder exited with code " + process.exitValue() + ": " + description);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            process.destroy();
+        }
+    }
+
+    public boolean isAlive() {
+        return process.isAlive();
+    }
+}
@@ -0,0 +1,43 @@
+package simulation.recording;
+
+import processing.core.PGraphics;
+
+/**
+ * Destination for recorded frames
+ */
+public interface FrameSink {
+    /**
+     * Queue a frame for output
+     * @return False if the frame was dropped
+     */
+    boolean submit(PGraphics frame);
+
+    /**
+     * When blocking, submit() waits for the writers however long it takes
+     * instead of dropping the frame. Offline renders need every frame.
+     */
+    void setBlocking(boolean blocking);
+
+    /**
+     * Stop accepting frames. Queued frames are still written in the background.
+     */
+    void shutdown();
+
+    /**
+     * Wait for queued frames to be written after {@link #shutdown()}
+     * @return True if everything finished before the timeout
+     */
+    boolean awaitCompletion(long timeoutMillis) throws InterruptedException;
+
+    /**
+     * Frames accepted but not yet written
+     */
+    int getQueueDepth();
+
+    long getDroppedFrames();
+
+    /**
+     * Frames accepted so far, which is also the next frame number
+     */
+    int getAcceptedFrames();
+}
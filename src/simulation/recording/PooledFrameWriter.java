@@ -0,0 +1,162 @@
+package simulation.recording;
+
+import processing.core.PGraphics;
+
+import java.io.IOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Base for frame sinks that write on background threads.
+ *
+ * The animation thread only copies the frame's pixels into a pooled
+ * {@code int[]} and queues it; the subclass writes it off-thread. The number
+ * of buffers bounds the frames in flight. When all of them are busy,
+ * {@link #submit} waits up to the configured time for one to free up
+ * (backpressure) and then drops the frame, unless the writer is blocking.
+ * Frame numbers are handed out only to accepted frames, so the output has no
+ * gaps.
+ */
+public abstract class PooledFrameWriter implements FrameSink {
+    private final long maxWaitMillis;
+    private final BlockingQueue<int[]> bufferPool;
+    private final ThreadPoolExecutor writers;
+    private volatile boolean blocking = false;
+
+    private int nextFrame = 0;
+    private final AtomicInteger pendingFrames = new AtomicInteger();
+    private final AtomicLong writtenFrames = new AtomicLong();
+    private final AtomicLong failedFrames = new AtomicLong();
+    private long droppedFrames = 0;
+
+    /**
+     * @param writerThreads Number of threads calling {@link #writeFrame}
+     * @param queueCapacity Frames that may wait for a writer, beyond those being written
+     * @param maxWaitMillis How long submit() may block for a free buffer before dropping the frame
+     * @param threadName Prefix for the writer thread names
+     */
+    protected PooledFrameWriter(int writerThreads, int queueCapacity, long maxWaitMillis, String threadName) {
+        this.maxWaitMillis = maxWaitMillis;
+
+        // Every in-flight frame holds a buffer, so the executor queue can never overflow
+        int buffers = writerThreads + queueCapacity;
+        this.bufferPool = new ArrayBlockingQueue<>(buffers);
+        for (int i = 0; i < buffers; i++) {
+            bufferPool.add(new int[0]);
+        }
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.writers = new ThreadPoolExecutor(writerThreads, writerThreads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(buffers + 1), runnable -> {
+                    Thread thread = new Thread(runnable, threadName + "-" + threadCount.incrementAndGet());
+                    thread.setPriority(Thread.NORM_PRIORITY - 1);
+                    return thread;
+                });
+    }
+
+    /**
+     * Write one frame's ARGB pixels. Called on a writer thread; the array is
+     * returned to the pool afterwards, so it must not be kept.
+     */
+    protected abstract void writeFrame(int[] pixels, int width, int height, int frameNumber) throws IOException;
+
+    /**
+     * Called on a writer thread once shutdown has been requested and every
+     * earlier frame has been handed to a writer
+     */
+    protected void finish() throws IOException {
+    }
+
+    @Override
+    public boolean submit(PGraphics frame) {
+        int[] buffer;
+        try {
+            buffer = blocking ? bufferPool.take() : bufferPool.poll(maxWaitMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            buffer = null;
+        }
+        if (buffer == null) {
+            droppedFrames++;
+            return false;
+        }
+
+        int width = frame.pixelWidth;
+        int height = frame.pixelHeight;
+        if (buffer.length != width * height) {
+            buffer = new int[width * height];
+        }
+        frame.loadPixels();
+        System.arraycopy(frame.pixels, 0, buffer, 0, buffer.length);
+
+        int frameNumber = nextFrame++;
+        pendingFrames.incrementAndGet();
+        int[] pixels = buffer;
+        writers.execute(() -> write(pixels, width, height, frameNumber));
+        return true;
+    }
+
+    @Override
+    public void setBlocking(boolean blocking) {
+        this.blocking = blocking;
+    }
+
+    private void write(int[] pixels, int width, int height, int frameNumber) {
+        try {
+            writeFrame(pixels, width, height, frameNumber);
+            writtenFrames.incrementAndGet();
+        } catch (IOException e) {
+            failedFrames.incrementAndGet();
+            System.err.println("Error writing frame " + frameNumber + ": " + e.getMessage());
+        } finally {
+            pendingFrames.decrementAndGet();
+            bufferPool.offer(pixels);
+        }
+    }
+
+    @Override
+    public void shutdown() {
+        if (writers.isShutdown()) return;
+
+        writers.execute(() -> {
+            try {
+                finish();
+            } catch (IOException e) {
+                System.err.println("Error finishing recording: " + e.getMessage());
+            }
+        });
+        writers.shutdown();
+    }
+
+    @Override
+    public boolean awaitCompletion(long timeoutMillis) throws InterruptedException {
+        return writers.awaitTermination(timeoutMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public int getQueueDepth() {
+        return pendingFrames.get();
+    }
+
+    @Override
+    public long getDroppedFrames() {
+        return droppedFrames;
+    }
+
+    public long getWrittenFrames() {
+        return writtenFrames.get();
+    }
+
+    public long getFailedFrames() {
+        return failedFrames.get();
+    }
+
+    @Override
+    public int getAcceptedFrames() {
+        return nextFrame;
+    }
+}
@@ -0,0 +1,152 @@
+package simulation.recording;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Writes frames as an uncompressed YUV4MPEG2 (.y4m) stream through memory-mapped output.
+ *
+ * Frames are converted to full-range BT.601 YCbCr with 4:2:0 chroma
+ * (C420jpeg), which any ffmpeg can read without extra flags. Each frame is
+ * written straight into a mapping of exactly its own region at the end of
+ * the file, so the file never has to be truncated afterwards; Windows
+ * refuses to truncate a file while a mapping is still live. The only
+ * per-frame allocation is the mapping itself.
+ */
+public class Y4mFrameWriter extends PooledFrameWriter {
+    private static final byte[] FRAME_MARKER = "FRAME\n".getBytes(StandardCharsets.US_ASCII);
+
+    private final FileChannel channel;
+    private final int framesPerSecond;
+    private long position = 0;
+
+    private int width = -1;
+    private int height = -1;
+    private int chromaWidth;
+    private int chromaHeight;
+    private long frameBytes;
+    private byte[] lumaRow;
+    private byte[] cbRow;
+    private byte[] crRow;
+
+    /**
+     * @param file Output file, replaced if it exists
+     * @param framesPerSecond Frame rate recorded in the stream header
+     * @param queueCapacity Frames that may wait for the writer, beyond the one being written
+     * @param maxWaitMillis How long submit() may block for a free buffer before dropping the frame
+     */
+    public Y4mFrameWriter(File file, int framesPerSecond, int queueCapacity, long maxWaitMillis) throws IOException {
+        super(1, queueCapacity, maxWaitMillis, "y4m-writer");
+        this.framesPerSecond = framesPerSecond;
+        this.channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+    }
+
+    @Override
+    protected void writeFrame(int[] pixels, int frameWidth, int frameHeight, int frameNumber) throws IOException {
+        if (width < 0) {
+            writeHeader(frameWidth, frameHeight);
+        } else if (frameWidth != width || frameHeight != height) {
+            // Y4M has a fixed frame size
+            throw new IOException("Frame size changed from " + width + "x" + height
+                    + " to " + frameWidth + "x" + frameHeight);
+        }
+
+        MappedByteBuffer out = channel.map(FileChannel.MapMode.READ_WRITE, position, frameBytes);
+        out.put(FRAME_MARKER);
+        writeLuma(out, pixels);
+        writeChroma(out, pixels);
+        position += frameBytes;
+    }
+
+    private void writeHeader(int frameWidth, int frameHeight) throws IOException {
+        width = frameWidth;
+        height = frameHeight;
+        chromaWidth = (width + 1) / 2;
+        chromaHeight = (height + 1) / 2;
+        frameBytes = FRAME_MARKER.length + (long) width * height + 2L * chromaWidth * chromaHeight;
+        lumaRow = new byte[width];
+        cbRow = new byte[chromaWidth];
+        crRow = new byte[chromaWidth];
+
+        String header = "YUV4MPEG2 W" + width + " H" + height + " F" + framesPerSecond + ":1 Ip A1:1 C420jpeg\n";
+        ByteBuffer bytes = ByteBuffer.wrap(header.getBytes(StandardCharsets.US_ASCII));
+        while (bytes.hasRemaining()) {
+            position += channel.write(bytes, position);
+        }
+    }
+
+    private void writeLuma(MappedByteBuffer out, int[] pixels) {
+        for (int y = 0; y < height; y++) {
+            int row = y * width;
+            for (int x = 0; x < width; x++) {
+                int argb = pixels[row + x];
+                int r = (argb >> 16) & 0xff;
+                int g = (argb >> 8) & 0xff;
+                int b = argb & 0xff;
+                lumaRow[x] = (byte) ((77 * r + 150 * g + 29 * b + 128) >> 8);
+            }
+            out.put(lumaRow);
+        }
+    }
+
+    /**
+     * Average each 2x2 block's colour, then convert it to Cb and Cr.
+     * The Cb plane is written row by row, the Cr plane at its own offset.
+     */
+    private void writeChroma(MappedByteBuffer out, int[] pixels) {
+        int cbStart = out.position();
+        int crStart = cbStart + chromaWidth * chromaHeight;
+
+        for (int cy = 0; cy < chromaHeight; cy++) {
+            int y0 = cy * 2;
+            int y1 = Math.min(y0 + 1, height - 1);
+            for (int cx = 0; cx < chromaWidth; cx++) {
+                int x0 = cx * 2;
+                int x1 = Math.min(x0 + 1, width - 1);
+                int p00 = pixels[y0 * width + x0];
+                int p01 = pixels[y0 * width + x1];
+                int p10 = pixels[y1 * width + x0];
+                int p11 = pixels[y1 * width + x1];
+
+                int r = (((p00 >> 16) & 0xff) + ((p01 >> 16) & 0xff) + ((p10 >> 16) & 0xff) + ((p11 >> 16) & 0xff) + 2) >> 2;
+                int g = (((p00 >> 8) & 0xff) + ((p01 >> 8) & 0xff) + ((p10 >> 8) & 0xff) + ((p11 >> 8) & 0xff) + 2) >> 2;
+                int b = ((p00 & 0xff) + (p01 & 0xff) + (p10 & 0xff) + (p11 & 0xff) + 2) >> 2;
+
+                cbRow[cx] = (byte) clampByte(((-43 * r - 85 * g + 128 * b + 128) >> 8) + 128);
+                crRow[cx] = (byte) clampByte(((128 * r - 107 * g - 21 * b + 128) >> 8) + 128);
+            }
+            out.put(cbStart + cy * chromaWidth, cbRow);
+            out.put(crStart + cy * chromaWidth, crRow);
+        }
+    }
+
+    private static int clampByte(int value) {
+        return value < 0 ? 0 : Math.min(value, 255);
+    }
+
+    @Override
+    protected void finish() throws IOException {
+        channel.force(false);
+        channel.close();
+    }
+
+    /**
+     * Write simulation_video.y4m into the given folder
+     */
+    public static Y4mFrameWriter create(String folder, int framesPerSecond) throws IOException {
+        return new Y4mFrameWriter(new File(folder, "simulation_video.y4m"), framesPerSecond, 4, 100);
+    }
+
+    /**
+     * Bytes written so far, including the stream header
+     */
+    public long getBytesWritten() {
+        return position;
+    }
+}
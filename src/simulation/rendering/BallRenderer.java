@@ -14,25 +14,16 @@ public class BallRenderer {
     }
 
     public void display(Ball ball, PApplet app) {
-        float hue = (app.frameCount * 2) % 360;
-
-        app.colorMode(PApplet.HSB, 360, 100, 100, 100);
-        app.stroke(hue, 100, 100);
+        app.stroke(RainbowPalette.colorAt(app.frameCount * 2));
         app.strokeWeight(strokeThickness);
         app.noFill();
 
         app.ellipse(ball.getPosition().x, ball.getPosition().y,
                 ball.getRadius() * 2, ball.getRadius() * 2);
-
-        app.colorMode(PApplet.RGB, 255);
     }
 
     public int getCurrentVisualStrokeColor(PApplet app) {
-        float hue = (app.frameCount * 2) % 360;
-        app.colorMode(PApplet.HSB, 360, 100, 100, 100);
-        int c = app.color(hue, 100, 100);
-        app.colorMode(PApplet.RGB, 255);
-        return c;
+        return RainbowPalette.colorAt(app.frameCount * 2);
     }
 
     public float getStrokeThickness() { return strokeThickness; }
@@ -0,0 +1,53 @@
+package simulation.rendering;
+
+/**
+ * Precomputed fully saturated, full brightness hue colours.
+ *
+ * Replaces switching colorMode to HSB, calling color() and switching back:
+ * a lookup is an array index and leaves the graphics state untouched. The
+ * conversion matches Processing's HSB colour calculation, at a quarter of a
+ * degree resolution.
+ */
+public final class RainbowPalette {
+    private static final int STEPS_PER_DEGREE = 4;
+    private static final int SIZE = 360 * STEPS_PER_DEGREE;
+    private static final int[] COLORS = new int[SIZE];
+
+    static {
+        for (int i = 0; i < SIZE; i++) {
+            COLORS[i] = hsbToArgb((float) i / SIZE);
+        }
+    }
+
+    private RainbowPalette() {
+    }
+
+    /**
+     * ARGB colour for a hue in degrees; any value wraps around the colour wheel
+     */
+    public static int colorAt(float hueDegrees) {
+        int index = (int) (hueDegrees * STEPS_PER_DEGREE) % SIZE;
+        return COLORS[index < 0 ? index + SIZE : index];
+    }
+
+    /**
+     * Same as HSB(hue, 100%, 100%) in Processing, with hue normalised to [0, 1)
+     */
+    private static int hsbToArgb(float hue) {
+        float which = (hue - (int) hue) * 6.0f;
+        float f = which - (int) which;
+        float q = 1.0f - f;
+        float t = f;
+
+        float r, g, b;
+        switch ((int) which) {
+            case 0: r = 1; g = t; b = 0; break;
+            case 1: r = q; g = 1; b = 0; break;
+            case 2: r = 0; g = 1; b = t; break;
+            case 3: r = 0; g = q; b = 1; break;
+            case 4: r = t; g = 0; b = 1; break;
+            default: r = 1; g = 0; b = q; break;
+        }
+        return 0xff000000 | ((int) (255 * r) << 16) | ((int) (255 * g) << 8) | (int) (255 * b);
+    }
+}
@@ -0,0 +1,256 @@
+package simulation.rendering;
+
+import processing.core.PApplet;
+import processing.core.PGraphics;
+import processing.opengl.PGL;
+import processing.opengl.PGraphicsOpenGL;
+import processing.opengl.PShader;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+
+/**
+ * Draws every trace ring from one vertex buffer that it owns.
+ *
+ * Each ring slot is a fixed block of triangles: one annular quad per segment,
+ * stroke width included, with the colour on every vertex. A CPU-side copy of
+ * the buffer is kept; {@link #setRing} rewrites one slot there and marks it
+ * dirty, and {@link #draw} uploads only the dirty slots (bufferSubData, one
+ * call per run of adjacent slots) before drawing the live slots with at most
+ * two drawArrays calls. Slots outside the live range are never drawn, so an
+ * expired ring costs nothing and needs no write.
+ *
+ * Every slot is the same size, so rings are always written at full detail;
+ * fewer segments would only shrink the picture, not the vertex count.
+ * {@link #drawRing} provides reduced-detail rings for immediate-mode callers.
+ *
+ * The shader uses GLSL 1.10 syntax, which the default PJOGL profile accepts.
+ */
+public class TraceBatchRenderer {
+    public static final int SEGMENTS = 32;
+    public static final int MIN_SEGMENTS = 8;
+    private static final int VERTICES_PER_SEGMENT = 6; // Two triangles
+    private static final int VERTICES_PER_RING = SEGMENTS * VERTICES_PER_SEGMENT;
+    private static final int STRIDE = 12; // x, y as floats, then RGBA bytes
+    private static final int RING_BYTES = VERTICES_PER_RING * STRIDE;
+
+    private static final String[] VERTEX_SHADER = {
+            "uniform mat4 traceTransform;",
+            "attribute vec2 position;",
+            "attribute vec4 color;",
+            "varying vec4 vertColor;",
+            "void main() {",
+            "  gl_Position = traceTransform * vec4(position, 0.0, 1.0);",
+            "  vertColor = color;",
+            "}"
+    };
+    private static final String[] FRAGMENT_SHADER = {
+            "#ifdef GL_ES",
+            "precision mediump float;",
+            "#endif",
+            "varying vec4 vertColor;",
+            "void main() {",
+            "  gl_FragColor = vertColor;",
+            "}"
+    };
+
+    // Unit circle, shared by every ring
+    private static final float[] COS = new float[SEGMENTS + 1];
+    private static final float[] SIN = new float[SEGMENTS + 1];
+
+    static {
+        for (int s = 0; s <= SEGMENTS; s++) {
+            double angle = Math.PI * 2 * s / SEGMENTS;
+            COS[s] = (float) Math.cos(angle);
+            SIN[s] = (float) Math.sin(angle);
+        }
+    }
+
+    private final PApplet applet;
+    private final float strokeWeight;
+    private int capacity = 0;
+
+    // CPU copy of the vertex buffer, and the slots changed since the last upload
+    private ByteBuffer vertices;
+    private boolean[] slotDirty;
+    private int dirtyMin = Integer.MAX_VALUE;
+    private int dirtyMax = -1;
+
+    // GL objects, created on the first draw
+    private PShader shader;
+    private int bufferId = 0;
+    private int uploadedBytes = 0;
+
+    public TraceBatchRenderer(PApplet applet, float strokeWeight) {
+        this.applet = applet;
+        this.strokeWeight = strokeWeight;
+    }
+
+    /**
+     * Make room for at least the given number of rings. Growing discards the
+     * vertex data, so callers must rewrite all live slots after this returns true.
+     */
+    public boolean ensureCapacity(int rings) {
+        if (vertices != null && rings <= capacity) return false;
+
+        capacity = rings;
+        vertices = ByteBuffer.allocateDirect(capacity * RING_BYTES).order(ByteOrder.nativeOrder());
+        slotDirty = new boolean[capacity];
+        dirtyMin = Integer.MAX_VALUE;
+        dirtyMax = -1;
+        return true;
+    }
+
+    /**
+     * Write a ring into a slot
+     */
+    public void setRing(int slot, float x, float y, float radius, int color) {
+        float inner = Math.max(0, radius - strokeWeight / 2);
+        float outer = radius + strokeWeight / 2;
+        byte r = (byte) (color >> 16);
+        byte g = (byte) (color >> 8);
+        byte b = (byte) color;
+        byte a = (byte) (color >>> 24);
+
+        int at = slot * RING_BYTES;
+        for (int i = 0; i < SEGMENTS; i++) {
+            int j = i + 1;
+            float inX0 = x + COS[i] * inner, inY0 = y + SIN[i] * inner;
+            float outX0 = x + COS[i] * outer, outY0 = y + SIN[i] * outer;
+            float inX1 = x + COS[j] * inner, inY1 = y + SIN[j] * inner;
+            float outX1 = x + COS[j] * outer, outY1 = y + SIN[j] * outer;
+            at = putVertex(at, inX0, inY0, r, g, b, a);
+            at = putVertex(at, outX0, outY0, r, g, b, a);
+            at = putVertex(at, outX1, outY1, r, g, b, a);
+            at = putVertex(at, inX0, inY0, r, g, b, a);
+            at = putVertex(at, outX1, outY1, r, g, b, a);
+            at = putVertex(at, inX1, inY1, r, g, b, a);
+        }
+        markDirty(slot);
+    }
+
+    private int putVertex(int at, float x, float y, byte r, byte g, byte b, byte a) {
+        vertices.putFloat(at, x);
+        vertices.putFloat(at + 4, y);
+        vertices.put(at + 8, r);
+        vertices.put(at + 9, g);
+        vertices.put(at + 10, b);
+        vertices.put(at + 11, a);
+        return at + STRIDE;
+    }
+
+    private void markDirty(int slot) {
+        slotDirty[slot] = true;
+        dirtyMin = Math.min(dirtyMin, slot);
+        dirtyMax = Math.max(dirtyMax, slot);
+    }
+
+    /**
+     * Upload the changed slots and draw the live ones, oldest first
+     * @param first Slot of the oldest live ring
+     * @param count Number of live rings, wrapping around the end of the slots
+     */
+    public void draw(PGraphics graphics, int first, int count) {
+        if (vertices == null) return;
+
+        PGraphicsOpenGL pg = (PGraphicsOpenGL) graphics;
+        PGL pgl = pg.beginPGL();
+        if (shader == null) {
+            shader = new PShader(applet, VERTEX_SHADER, FRAGMENT_SHADER);
+        }
+        if (bufferId == 0) {
+            IntBuffer ids = ByteBuffer.allocateDirect(4).order(ByteOrder.nativeOrder()).asIntBuffer();
+            pgl.genBuffers(1, ids);
+            bufferId = ids.get(0);
+        }
+
+        pgl.bindBuffer(PGL.ARRAY_BUFFER, bufferId);
+        upload(pgl);
+
+        if (count > 0) {
+            shader.set("traceTransform", pg.projmodelview);
+            shader.bind();
+            int position = pgl.getAttribLocation(shader.glProgram, "position");
+            int color = pgl.getAttribLocation(shader.glProgram, "color");
+            pgl.enableVertexAttribArray(position);
+            pgl.enableVertexAttribArray(color);
+            pgl.vertexAttribPointer(position, 2, PGL.FLOAT, false, STRIDE, 0);
+            pgl.vertexAttribPointer(color, 4, PGL.UNSIGNED_BYTE, true, STRIDE, 8);
+
+            int untilEnd = Math.min(count, capacity - first);
+            pgl.drawArrays(PGL.TRIANGLES, first * VERTICES_PER_RING, untilEnd * VERTICES_PER_RING);
+            if (count > untilEnd) {
+                pgl.drawArrays(PGL.TRIANGLES, 0, (count - untilEnd) * VERTICES_PER_RING);
+            }
+
+            pgl.disableVertexAttribArray(position);
+            pgl.disableVertexAttribArray(color);
+            shader.unbind();
+        }
+
+        pgl.bindBuffer(PGL.ARRAY_BUFFER, 0);
+        pg.endPGL();
+    }
+
+    /**
+     * Send the dirty slots to the GPU, one bufferSubData per run of adjacent
+     * slots. A grown buffer is reallocated and sent whole.
+     */
+    private void upload(PGL pgl) {
+        if (uploadedBytes != vertices.capacity()) {
+            vertices.clear();
+            pgl.bufferData(PGL.ARRAY_BUFFER, vertices.capacity(), vertices, PGL.DYNAMIC_DRAW);
+            uploadedBytes = vertices.capacity();
+            for (int slot = Math.max(0, dirtyMin); slot <= dirtyMax; slot++) {
+                slotDirty[slot] = false;
+            }
+        } else {
+            int slot = dirtyMin;
+            while (slot <= dirtyMax) {
+                if (!slotDirty[slot]) {
+                    slot++;
+                    continue;
+                }
+                int runStart = slot;
+                while (slot <= dirtyMax && slotDirty[slot]) {
+                    slotDirty[slot++] = false;
+                }
+                vertices.limit(slot * RING_BYTES).position(runStart * RING_BYTES);
+                pgl.bufferSubData(PGL.ARRAY_BUFFER, runStart * RING_BYTES, (slot - runStart) * RING_BYTES, vertices);
+            }
+            vertices.clear();
+        }
+        dirtyMin = Integer.MAX_VALUE;
+        dirtyMax = -1;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Fewest segments whose polygon stays within the tolerance of the true circle
+     */
+    public static int segmentsFor(float radius, float tolerancePixels) {
+        for (int segments = MIN_SEGMENTS; segments < SEGMENTS; segments *= 2) {
+            // Largest gap between a chord and the arc it replaces
+            if (radius * (1 - Math.cos(Math.PI / segments)) <= tolerancePixels) {
+                return segments;
+            }
+        }
+        return SEGMENTS;
+    }
+
+    /**
+     * Immediate-mode ring with the given number of segments, for the unbatched path
+     */
+    public static void drawRing(PGraphics graphics, float x, float y, float radius, int segments) {
+        int stride = SEGMENTS / segments;
+        graphics.beginShape();
+        for (int s = 0; s < SEGMENTS; s += stride) {
+            graphics.vertex(x + COS[s] * radius, y + SIN[s] * radius);
+        }
+        graphics.endShape(PApplet.CLOSE);
+    }
+}